@@ -28,8 +28,8 @@ dependencies {
   implementation(platform("io.knotx:knotx-dependencies:${project.version}"))
   api("io.knotx:knotx-fragments-api:${project.version}")
   
-  implementation(group = "io.vertx", name = "vertx-core")
-  implementation(group = "io.vertx", name = "vertx-rx-java2")
+  api(group = "io.vertx", name = "vertx-core")
+  api(group = "io.vertx", name = "vertx-rx-java2")
 }
 
 tasks {
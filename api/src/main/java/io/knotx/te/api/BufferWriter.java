@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.api;
+
+import io.vertx.core.buffer.Buffer;
+import java.io.Writer;
+
+/**
+ * A {@link Writer} that encodes written characters as UTF-8 directly into a Vert.x {@link Buffer}.
+ * Characters are encoded in small chunks, so no intermediate {@code String} of the whole content is
+ * created. Instances are not thread-safe.
+ */
+public final class BufferWriter extends Writer {
+
+  private static final int DEFAULT_INITIAL_SIZE = 1024;
+  private static final int CHUNK_SIZE = 1024;
+  private static final byte REPLACEMENT = '?';
+
+  private final Buffer buffer;
+  private final byte[] chunk = new byte[CHUNK_SIZE + 4];
+  private int position;
+  private char pendingHighSurrogate;
+
+  public BufferWriter() {
+    this(DEFAULT_INITIAL_SIZE);
+  }
+
+  /**
+   * @param initialSize initial size of the underlying buffer in bytes
+   */
+  public BufferWriter(int initialSize) {
+    this.buffer = Buffer.buffer(initialSize);
+  }
+
+  @Override
+  public void write(int c) {
+    encode((char) c);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) {
+    for (int i = off; i < off + len; i++) {
+      encode(cbuf[i]);
+    }
+  }
+
+  @Override
+  public void write(String str) {
+    write(str, 0, str.length());
+  }
+
+  @Override
+  public void write(String str, int off, int len) {
+    for (int i = off; i < off + len; i++) {
+      encode(str.charAt(i));
+    }
+  }
+
+  @Override
+  public void flush() {
+    if (position > 0) {
+      buffer.appendBytes(chunk, 0, position);
+      position = 0;
+    }
+  }
+
+  @Override
+  public void close() {
+    if (pendingHighSurrogate != 0) {
+      pendingHighSurrogate = 0;
+      chunk[position++] = REPLACEMENT;
+    }
+    flush();
+  }
+
+  /**
+   * Flushes pending characters and returns the buffer with UTF-8 encoded content.
+   *
+   * @return the underlying buffer
+   */
+  public Buffer getBuffer() {
+    close();
+    return buffer;
+  }
+
+  private void encode(char c) {
+    if (position >= CHUNK_SIZE) {
+      flush();
+    }
+    if (pendingHighSurrogate != 0) {
+      char high = pendingHighSurrogate;
+      pendingHighSurrogate = 0;
+      if (Character.isLowSurrogate(c)) {
+        encodeCodePoint(Character.toCodePoint(high, c));
+        return;
+      }
+      chunk[position++] = REPLACEMENT;
+    }
+    if (c < 0x80) {
+      chunk[position++] = (byte) c;
+    } else if (c < 0x800) {
+      chunk[position++] = (byte) (0xC0 | (c >> 6));
+      chunk[position++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isHighSurrogate(c)) {
+      pendingHighSurrogate = c;
+    } else if (Character.isLowSurrogate(c)) {
+      chunk[position++] = REPLACEMENT;
+    } else {
+      chunk[position++] = (byte) (0xE0 | (c >> 12));
+      chunk[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      chunk[position++] = (byte) (0x80 | (c & 0x3F));
+    }
+  }
+
+  private void encodeCodePoint(int codePoint) {
+    chunk[position++] = (byte) (0xF0 | (codePoint >> 18));
+    chunk[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+    chunk[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+    chunk[position++] = (byte) (0x80 | (codePoint & 0x3F));
+  }
+}
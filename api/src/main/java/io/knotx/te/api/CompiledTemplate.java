@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.api;
+
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Represents a template compiled once by {@link TemplateEngine#compile(String)} that can be
+ * rendered many times with different data. Implementations are thread-safe, so a single handle may
+ * be shared and kept for as long as the template source does not change.
+ */
+public interface CompiledTemplate {
+
+  /**
+   * Merges the template with the payload.
+   *
+   * @param payload - dynamic data to ingest into the template.
+   * @return evaluated markup.
+   */
+  String render(JsonObject payload);
+
+  /**
+   * Merges the template with the payload and streams evaluated markup into the writer.
+   *
+   * @param payload - dynamic data to ingest into the template.
+   * @param writer - a sink for evaluated markup.
+   * @throws IOException when the writer fails
+   */
+  void render(JsonObject payload, Writer writer) throws IOException;
+
+  /**
+   * Narrows the payload to the values the template may reference, so that rendering the narrowed
+   * payload gives the same markup as rendering the whole one. It lets callers fingerprint only the
+   * relevant inputs of a template.
+   *
+   * @param payload - dynamic data to ingest into the template.
+   * @return the narrowed payload, the payload itself when the referenced values are not known.
+   */
+  default JsonObject prune(JsonObject payload) {
+    return payload;
+  }
+
+}
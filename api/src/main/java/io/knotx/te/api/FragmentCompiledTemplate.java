@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.api;
+
+import io.knotx.fragments.api.Fragment;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Adapts engines that do not support compiled templates: every render processes a new fragment
+ * with the template body and the payload. Templates of the same engine and body are equal.
+ */
+final class FragmentCompiledTemplate implements CompiledTemplate {
+
+  private static final String FRAGMENT_TYPE = "snippet";
+
+  private final TemplateEngine engine;
+  private final String body;
+
+  FragmentCompiledTemplate(TemplateEngine engine, String body) {
+    this.engine = engine;
+    this.body = body;
+  }
+
+  @Override
+  public String render(JsonObject payload) {
+    return engine.process(toFragment(payload));
+  }
+
+  @Override
+  public void render(JsonObject payload, Writer writer) throws IOException {
+    engine.process(toFragment(payload), writer);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FragmentCompiledTemplate that = (FragmentCompiledTemplate) o;
+    return engine == that.engine && body.equals(that.body);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * System.identityHashCode(engine) + body.hashCode();
+  }
+
+  private Fragment toFragment(JsonObject payload) {
+    Fragment fragment = new Fragment(FRAGMENT_TYPE, new JsonObject(), body);
+    fragment.mergeInPayload(payload);
+    return fragment;
+  }
+}
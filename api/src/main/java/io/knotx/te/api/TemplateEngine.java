@@ -16,6 +16,10 @@
 package io.knotx.te.api;
 
 import io.knotx.fragments.api.Fragment;
+import io.reactivex.Single;
+import io.vertx.core.buffer.Buffer;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Represents template engine that process fragments in order to merge dynamic data with template.
@@ -30,4 +34,66 @@ public interface TemplateEngine {
    */
   String process(Fragment fragment);
 
+  /**
+   * Compiles the template body once, so it can be rendered many times without recompilation and
+   * cache lookups. The default implementation processes a new fragment on every render, engines
+   * should override it to return their compiled template.
+   *
+   * @param body - template source.
+   * @return reusable compiled template.
+   */
+  default CompiledTemplate compile(String body) {
+    return new FragmentCompiledTemplate(this, body);
+  }
+
+  /**
+   * Runs template engine over fragment asynchronously. The default implementation evaluates
+   * {@link #process(Fragment)} lazily on subscription, on the subscribing thread. Engines that are
+   * able to compile or render off the calling thread should override it.
+   *
+   * @param fragment - a fragment to process.
+   * @return single emitting evaluated fragment markup or the processing error.
+   */
+  default Single<String> processAsync(Fragment fragment) {
+    return Single.fromCallable(() -> process(fragment));
+  }
+
+  /**
+   * Runs template engine over fragment and streams evaluated markup into the given writer, so the
+   * markup does not have to be materialized as a {@code String}. The default implementation
+   * delegates to {@link #process(Fragment)}, engines should override it to render directly into
+   * the writer.
+   *
+   * @param fragment - a fragment to process.
+   * @param writer - a sink for evaluated fragment markup.
+   * @throws IOException when the writer fails
+   */
+  default void process(Fragment fragment, Writer writer) throws IOException {
+    writer.write(process(fragment));
+  }
+
+  /**
+   * Runs template engine over fragment and encodes evaluated markup as UTF-8 into a {@link Buffer}.
+   *
+   * @param fragment - a fragment to process.
+   * @return UTF-8 encoded fragment markup.
+   */
+  default Buffer processToBuffer(Fragment fragment) {
+    BufferWriter writer = new BufferWriter();
+    try {
+      process(fragment, writer);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return writer.getBuffer();
+  }
+
+  /**
+   * Releases resources of the engine, e.g. unregisters its meters, when it is no longer used. The
+   * default implementation does nothing.
+   */
+  default void close() {
+    // nothing to release
+  }
+
 }
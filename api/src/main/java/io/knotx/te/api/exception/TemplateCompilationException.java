@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.api.exception;
+
+/**
+ * Thrown when a template source can not be compiled by a template engine.
+ */
+public class TemplateCompilationException extends RuntimeException {
+
+  public TemplateCompilationException(Throwable cause) {
+    super("Could not compile template", cause);
+  }
+
+  public TemplateCompilationException(String message) {
+    super(message);
+  }
+}
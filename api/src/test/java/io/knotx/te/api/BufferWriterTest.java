@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.api;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BufferWriterTest {
+
+  @Test
+  @DisplayName("Expect ASCII, multi-byte and supplementary characters encoded as UTF-8")
+  void expectUtf8Encoding() {
+    String text = "plain, zażółć, €, 😀";
+    BufferWriter writer = new BufferWriter(4);
+
+    writer.write(text);
+
+    assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), writer.getBuffer().getBytes());
+  }
+
+  @Test
+  @DisplayName("Expect surrogate pair split between writes encoded as a single code point")
+  void expectSplitSurrogatePairEncoded() {
+    BufferWriter writer = new BufferWriter();
+
+    writer.write("a\uD83D");
+    writer.write("\uDE00b");
+
+    assertArrayEquals("a😀b".getBytes(StandardCharsets.UTF_8),
+        writer.getBuffer().getBytes());
+  }
+
+  @Test
+  @DisplayName("Expect content larger than the internal chunk encoded completely")
+  void expectLargeContentEncoded() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      text.append(i % 2 == 0 ? 'x' : 'ó');
+    }
+    BufferWriter writer = new BufferWriter();
+
+    writer.write(text.toString().toCharArray(), 0, text.length());
+
+    assertArrayEquals(text.toString().getBytes(StandardCharsets.UTF_8),
+        writer.getBuffer().getBytes());
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.knotx.fragments.api.Fragment;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TemplateEngineTest {
+
+  private static final Fragment FRAGMENT = new Fragment("snippet", new JsonObject(), "body");
+
+  @Test
+  @DisplayName("Expect default async processing to evaluate process lazily on subscription")
+  void expectAsyncProcessingDeferred() {
+    AtomicInteger calls = new AtomicInteger();
+    TemplateEngine engine = fragment -> {
+      calls.incrementAndGet();
+      return "markup";
+    };
+
+    Single<String> result = engine.processAsync(FRAGMENT);
+
+    assertEquals(0, calls.get());
+    assertEquals("markup", result.blockingGet());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  @DisplayName("Expect default async processing to emit processing error")
+  void expectAsyncProcessingError() {
+    IllegalStateException error = new IllegalStateException("broken template");
+    TemplateEngine engine = fragment -> {
+      throw error;
+    };
+
+    engine.processAsync(FRAGMENT)
+        .test()
+        .assertError(error);
+  }
+
+  @Test
+  @DisplayName("Expect default streaming processing to write processed markup")
+  void expectStreamingDelegatesToProcess() throws IOException {
+    TemplateEngine engine = fragment -> "markup";
+    StringWriter writer = new StringWriter();
+
+    engine.process(FRAGMENT, writer);
+
+    assertEquals("markup", writer.toString());
+  }
+
+  @Test
+  @DisplayName("Expect default compiled template to process template body with payload")
+  void expectDefaultCompiledTemplateProcessesFragment() {
+    TemplateEngine engine = fragment -> fragment.getBody() + ":" + fragment.getPayload()
+        .getString("name");
+
+    CompiledTemplate template = engine.compile("hello");
+
+    assertEquals("hello:knot", template.render(new JsonObject().put("name", "knot")));
+    assertEquals("hello:x", template.render(new JsonObject().put("name", "x")));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import org.nosphere.apache.rat.RatTask
+
+plugins {
+  id("io.knotx.java-library")
+  id("me.champeau.gradle.jmh") version "0.5.0"
+
+  id("org.nosphere.apache.rat") version "0.6.0"
+}
+
+description = "Knot.x Template Engine Benchmarks"
+
+dependencies {
+  jmh(platform("io.knotx:knotx-dependencies:${project.version}"))
+
+  jmh(project(":knotx-template-engine-api"))
+  jmh(project(":knotx-template-engine-handlebars"))
+  jmh(project(":knotx-template-engine-pebble"))
+
+  jmh(group = "io.vertx", name = "vertx-core")
+  jmh(group = "io.vertx", name = "vertx-rx-java2")
+  jmh(group = "com.github.jknack", name = "handlebars", version = "4.1.2")
+}
+
+jmh {
+  jmhVersion = "1.23"
+  fork = 1
+  warmupIterations = 3
+  iterations = 5
+  profilers = listOf("gc")
+  resultFormat = "JSON"
+  duplicateClassesStrategy = DuplicatesStrategy.EXCLUDE
+  findProperty("jmh.include")?.let { include = listOf(it.toString()) }
+  findProperty("jmh.threads")?.let { threads = it.toString().toInt() }
+}
+
+tasks {
+  named<RatTask>("rat") {
+    excludes.addAll(listOf("*.md", "**/build/*", "**/out/*"))
+  }
+  getByName("build").dependsOn("rat")
+}
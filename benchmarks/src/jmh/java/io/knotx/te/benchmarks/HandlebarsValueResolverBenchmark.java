@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.benchmarks;
+
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.ValueResolver;
+import io.knotx.te.handlebars.JsonObjectValueResolver;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures rendering of a Handlebars loop over a JSON array depending on the order of value
+ * resolvers: {@link JsonObjectValueResolver} registered before the Handlebars default resolvers
+ * (as the Handlebars engine does) or after them, when every JSON lookup goes through the map and
+ * reflection based resolvers first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandlebarsValueResolverBenchmark {
+
+  private static final String JSON_FIRST = "jsonFirst";
+  private static final String DEFAULTS_FIRST = "defaultsFirst";
+
+  @Param({JSON_FIRST, DEFAULTS_FIRST})
+  private String resolversOrder;
+
+  @Param({"1000"})
+  private int payloadSize;
+
+  @Param({"1", "5"})
+  private int payloadDepth;
+
+  private Template template;
+  private JsonObject payload;
+  private ValueResolver[] resolvers;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    template = new Handlebars().compileInline(
+        TemplateFixtures.template(TemplateFixtures.HANDLEBARS, 1, payloadDepth));
+    payload = TemplateFixtures.payload(payloadSize, payloadDepth);
+    resolvers = resolvers(resolversOrder);
+  }
+
+  @Benchmark
+  public String render() throws IOException {
+    return template.apply(Context.newBuilder(payload).resolver(resolvers).build());
+  }
+
+  private static ValueResolver[] resolvers(String order) {
+    ValueResolver[] defaults = ValueResolver.VALUE_RESOLVERS;
+    ValueResolver[] resolvers = new ValueResolver[defaults.length + 1];
+    if (JSON_FIRST.equals(order)) {
+      resolvers[0] = JsonObjectValueResolver.INSTANCE;
+      System.arraycopy(defaults, 0, resolvers, 1, defaults.length);
+    } else {
+      System.arraycopy(defaults, 0, resolvers, 0, defaults.length);
+      resolvers[defaults.length] = JsonObjectValueResolver.INSTANCE;
+    }
+    return resolvers;
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.benchmarks;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.api.TemplateEngineFactory;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures template compilation, compiled templates cache lookups and rendering of the engines
+ * registered with {@link TemplateEngineFactory}. Compilation and lookups are parameterized by the
+ * template size ({@link CompileState}), rendering and processing by the payload and the cache hit
+ * ratio ({@link RenderState}). The number of threads is set with the JMH {@code -t} option (or the
+ * {@code jmh.threads} Gradle property), allocations are reported by the {@code gc} profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplateEngineBenchmark {
+
+  private static final int HIT_RATIO_RESOLUTION = 100;
+
+  private static final int RENDERED_TEMPLATE_SIZE = 10;
+
+  private static final JsonObject NO_CACHE = new JsonObject()
+      .put("cache", new JsonObject().put("maximumSize", 0L));
+
+  private static final AtomicLong UNIQUE_TEMPLATE_ID = new AtomicLong();
+
+  @Benchmark
+  public CompiledTemplate compile(CompileState state) {
+    return state.uncachedEngine.compile(state.template);
+  }
+
+  @Benchmark
+  public CompiledTemplate cacheLookup(CompileState state) {
+    return state.cachingEngine.compile(state.template);
+  }
+
+  @Benchmark
+  public String renderCompiled(RenderState state) {
+    return state.compiledTemplate.render(state.payload);
+  }
+
+  @Benchmark
+  public String process(RenderState state, ThreadState threadState) {
+    if (threadState.nextIsHit(state.cacheHitRatio)) {
+      return state.templateEngine.process(state.hotFragment);
+    }
+    threadState.missFragment.setBody(uniqueTemplate(state.template));
+    return state.templateEngine.process(threadState.missFragment);
+  }
+
+  @State(Scope.Benchmark)
+  public static class CompileState {
+
+    @Param({TemplateFixtures.HANDLEBARS, TemplateFixtures.PEBBLE})
+    private String engine;
+
+    @Param({"10", "100"})
+    private int templateSize;
+
+    private Vertx vertx;
+    private TemplateEngine cachingEngine;
+    private TemplateEngine uncachedEngine;
+    private String template;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      vertx = Vertx.vertx();
+      // the cache is disabled, so compilation is measured without cache evictions
+      uncachedEngine = createEngine(vertx, engine, NO_CACHE);
+      cachingEngine = createEngine(vertx, engine, new JsonObject());
+      template = TemplateFixtures.template(engine, templateSize, 1);
+      cachingEngine.compile(template);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      vertx.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class RenderState {
+
+    @Param({TemplateFixtures.HANDLEBARS, TemplateFixtures.PEBBLE})
+    private String engine;
+
+    @Param({"10", "1000"})
+    private int payloadSize;
+
+    @Param({"1", "5"})
+    private int payloadDepth;
+
+    @Param({"1.0", "0.9"})
+    private double cacheHitRatio;
+
+    private Vertx vertx;
+    private TemplateEngine templateEngine;
+    private String template;
+    private JsonObject payload;
+    private Fragment hotFragment;
+    private CompiledTemplate compiledTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      vertx = Vertx.vertx();
+      templateEngine = createEngine(vertx, engine, new JsonObject());
+      template = TemplateFixtures.template(engine, RENDERED_TEMPLATE_SIZE, payloadDepth);
+      payload = TemplateFixtures.payload(payloadSize, payloadDepth);
+      hotFragment = fragment(template, payload);
+      compiledTemplate = templateEngine.compile(template);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      vertx.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+
+    private Fragment missFragment;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp(RenderState state) {
+      missFragment = fragment(state.template, state.payload);
+    }
+
+    private boolean nextIsHit(double cacheHitRatio) {
+      invocation = (invocation + 1) % HIT_RATIO_RESOLUTION;
+      return invocation < cacheHitRatio * HIT_RATIO_RESOLUTION;
+    }
+  }
+
+  private static String uniqueTemplate(String template) {
+    return template + "<!-- " + UNIQUE_TEMPLATE_ID.incrementAndGet() + " -->";
+  }
+
+  private static TemplateEngine createEngine(Vertx vertx, String name, JsonObject config) {
+    for (TemplateEngineFactory factory : ServiceLoader.load(TemplateEngineFactory.class)) {
+      if (factory.getName().equals(name)) {
+        return factory.create(vertx, config);
+      }
+    }
+    throw new IllegalStateException("Can't find factory: " + name + ".");
+  }
+
+  private static Fragment fragment(String body, JsonObject payload) {
+    Fragment fragment = new Fragment("snippet", new JsonObject(), body);
+    fragment.mergeInPayload(payload);
+    return fragment;
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.benchmarks;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Generates templates and payloads of a given size for both engines. Each template contains {@code
+ * templateSize} sections printing a root variable and one loop over all payload items printing a
+ * variable nested {@code payloadDepth} levels deep.
+ */
+final class TemplateFixtures {
+
+  static final String HANDLEBARS = "handlebars";
+  static final String PEBBLE = "pebble";
+
+  private TemplateFixtures() {
+    // utility class
+  }
+
+  static String template(String engine, int templateSize, int payloadDepth) {
+    StringBuilder template = new StringBuilder();
+    String nestedPath = nestedPath(payloadDepth);
+    for (int i = 0; i < templateSize; i++) {
+      template.append("<section class=\"section-").append(i).append("\">");
+      template.append(HANDLEBARS.equals(engine) ? "{{title}}" : "{{ title }}");
+      template.append("</section>\n");
+    }
+    if (HANDLEBARS.equals(engine)) {
+      template.append("<ul>{{#each items}}<li>{{name}}: {{").append(nestedPath)
+          .append("}}</li>{{/each}}</ul>");
+    } else {
+      template.append("<ul>{% for item in items %}<li>{{ item.name }}: {{ item.")
+          .append(nestedPath).append(" }}</li>{% endfor %}</ul>");
+    }
+    return template.toString();
+  }
+
+  static JsonObject payload(int payloadSize, int payloadDepth) {
+    JsonArray items = new JsonArray();
+    for (int i = 0; i < payloadSize; i++) {
+      JsonObject nested = new JsonObject().put("value", "value-" + i);
+      for (int depth = 0; depth < payloadDepth; depth++) {
+        nested = new JsonObject().put("nested", nested);
+      }
+      items.add(nested.put("name", "item-" + i));
+    }
+    return new JsonObject()
+        .put("title", "Knot.x Template Engine benchmark")
+        .put("items", items);
+  }
+
+  private static String nestedPath(int payloadDepth) {
+    StringBuilder path = new StringBuilder();
+    for (int depth = 0; depth < payloadDepth; depth++) {
+      path.append("nested.");
+    }
+    return path.append("value").toString();
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import org.nosphere.apache.rat.RatTask
+
+plugins {
+  id("io.knotx.java-library")
+  id("io.knotx.unit-test")
+  id("io.knotx.maven-publish")
+  id("io.knotx.codegen")
+  id("io.knotx.jacoco")
+
+  id("org.nosphere.apache.rat") version "0.6.0"
+}
+
+dependencies {
+  implementation(platform("io.knotx:knotx-dependencies:${project.version}"))
+  api(project(":knotx-template-engine-api"))
+
+  api(group = "com.github.ben-manes.caffeine", name = "caffeine", version = "2.8.5")
+  api(group = "io.vertx", name = "vertx-micrometer-metrics")
+
+  implementation(group = "io.vertx", name = "vertx-core")
+
+  testImplementation(group = "com.google.guava", name = "guava")
+  testImplementation("org.junit.jupiter:junit-jupiter-params")
+}
+
+tasks {
+  named<RatTask>("rat") {
+    excludes.addAll(listOf("*.md", "**/build/*", "**/out/*", "**/generated/*", "**/*.adoc", "gradle.properties"))
+  }
+  getByName("build").dependsOn("rat")
+}
+
+publishing {
+  publications {
+    withType(MavenPublication::class) {
+      from(components["java"])
+      artifact(tasks["sourcesJar"])
+      artifact(tasks["javadocJar"])
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.budget;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer reporting characters written into the delegate to a {@link RenderBudget}, see {@link
+ * RenderBudget#bound(Writer)}.
+ */
+final class BudgetedWriter extends Writer {
+
+  private final Writer delegate;
+  private final RenderBudget budget;
+
+  BudgetedWriter(Writer delegate, RenderBudget budget) {
+    this.delegate = delegate;
+    this.budget = budget;
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    budget.write(1);
+    delegate.write(c);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    budget.write(len);
+    delegate.write(cbuf, off, len);
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    budget.write(len);
+    delegate.write(str, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    delegate.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.budget;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits of a single render, checked cooperatively by template engines. A budget is activated for
+ * the rendering thread with {@link #activate()}, and engines report progress with {@link
+ * #write(long)} for written output and {@link #iterate()} for loop iterations, failing the render
+ * once the budget is exceeded. The clock is read every {@value #CHECK_INTERVAL} reports, so checks
+ * are cheap enough for the rendering hot path. Instances are not thread-safe and belong to a single
+ * render.
+ */
+public final class RenderBudget {
+
+  /**
+   * Number of reported writes and iterations between two reads of the clock.
+   */
+  public static final int CHECK_INTERVAL = 64;
+
+  private static final ThreadLocal<RenderBudget> ACTIVE = new ThreadLocal<>();
+
+  private final long start;
+  private long timeout;
+  private long deadline;
+  private boolean timed;
+  private long maxOutputSize;
+  private long maxIterations;
+  private long outputSize;
+  private long iterations;
+  private int ticks;
+
+  private RenderBudget() {
+    this.start = System.nanoTime();
+  }
+
+  /**
+   * Creates an unlimited budget whose time starts running now.
+   *
+   * @return new budget
+   */
+  public static RenderBudget start() {
+    return new RenderBudget();
+  }
+
+  /**
+   * Limits the render time, counted from the budget creation.
+   *
+   * @param timeout max render time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RenderBudget setTimeout(long timeout) {
+    this.timeout = timeout;
+    this.deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+    this.timed = true;
+    return this;
+  }
+
+  /**
+   * Limits the number of characters written by the render.
+   *
+   * @param maxOutputSize max number of written characters
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RenderBudget setMaxOutputSize(long maxOutputSize) {
+    this.maxOutputSize = maxOutputSize;
+    return this;
+  }
+
+  /**
+   * Limits the total number of loop iterations of the render.
+   *
+   * @param maxIterations max number of loop iterations
+   * @return a reference to this, so the API can be used fluently
+   */
+  public RenderBudget setMaxIterations(long maxIterations) {
+    this.maxIterations = maxIterations;
+    return this;
+  }
+
+  /**
+   * @return budget of the render running on the current thread, {@code null} when it is unlimited
+   */
+  public static RenderBudget active() {
+    return ACTIVE.get();
+  }
+
+  /**
+   * Makes this budget active for renders on the current thread until the returned scope is closed.
+   *
+   * @return scope restoring the previously active budget when closed
+   */
+  public Scope activate() {
+    RenderBudget previous = ACTIVE.get();
+    ACTIVE.set(this);
+    return new Scope(previous);
+  }
+
+  /**
+   * Wraps the writer, so characters written into it are reported to this budget.
+   *
+   * @param writer writer receiving the output
+   * @return writer reporting the output
+   */
+  public Writer bound(Writer writer) {
+    return new BudgetedWriter(writer, this);
+  }
+
+  /**
+   * Reports characters written by the render.
+   *
+   * @param length number of written characters
+   * @throws RenderLimitExceededException when the render wrote too many characters
+   * @throws RenderTimeoutException when the render exceeded its time
+   */
+  public void write(long length) {
+    outputSize += length;
+    if (maxOutputSize > 0 && outputSize > maxOutputSize) {
+      throw new RenderLimitExceededException("output size", maxOutputSize);
+    }
+    tick();
+  }
+
+  /**
+   * Reports a loop iteration of the render.
+   *
+   * @throws RenderLimitExceededException when the render iterated too many times
+   * @throws RenderTimeoutException when the render exceeded its time
+   */
+  public void iterate() {
+    if (maxIterations > 0 && ++iterations > maxIterations) {
+      throw new RenderLimitExceededException("iterations", maxIterations);
+    }
+    tick();
+  }
+
+  private void tick() {
+    if (++ticks % CHECK_INTERVAL == 0) {
+      checkDeadline();
+    }
+  }
+
+  /**
+   * @throws RenderTimeoutException when the render exceeded its time
+   */
+  public void checkDeadline() {
+    if (timed && System.nanoTime() - deadline > 0) {
+      throw new RenderTimeoutException(timeout);
+    }
+  }
+
+  /**
+   * Period during which a budget is active on a thread.
+   */
+  public static final class Scope implements AutoCloseable {
+
+    private final RenderBudget previous;
+
+    private Scope(RenderBudget previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      if (previous == null) {
+        ACTIVE.remove();
+      } else {
+        ACTIVE.set(previous);
+      }
+    }
+  }
+}
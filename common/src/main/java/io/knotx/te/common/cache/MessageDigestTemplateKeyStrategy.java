@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes keys with a {@link MessageDigest}. Digests are not thread-safe, so each thread uses its
+ * own instance. Characters are fed in small chunks, so no byte copy of the whole template is
+ * allocated.
+ */
+final class MessageDigestTemplateKeyStrategy implements TemplateKeyStrategy {
+
+  private static final int CHUNK_CHARS = 512;
+
+  private final ThreadLocal<MessageDigest> digests;
+  private final ThreadLocal<byte[]> chunks = ThreadLocal
+      .withInitial(() -> new byte[2 * CHUNK_CHARS]);
+
+  MessageDigestTemplateKeyStrategy(String algorithm) {
+    getDigest(algorithm);
+    this.digests = ThreadLocal.withInitial(() -> getDigest(algorithm));
+  }
+
+  @Override
+  public TemplateKey keyOf(CharSequence source) {
+    MessageDigest digest = digests.get();
+    byte[] chunk = chunks.get();
+    int length = source.length();
+    for (int from = 0; from < length; from += CHUNK_CHARS) {
+      int count = Math.min(CHUNK_CHARS, length - from);
+      for (int i = 0; i < count; i++) {
+        char c = source.charAt(from + i);
+        chunk[2 * i] = (byte) c;
+        chunk[2 * i + 1] = (byte) (c >>> 8);
+      }
+      digest.update(chunk, 0, 2 * count);
+    }
+    return toKey(digest.digest());
+  }
+
+  private static TemplateKey toKey(byte[] hash) {
+    long high = 0;
+    long low = 0;
+    for (int i = 0; i < hash.length; i++) {
+      int shift = 8 * (7 - i % 8);
+      if ((i / 8) % 2 == 0) {
+        high ^= (hash[i] & 0xFFL) << shift;
+      } else {
+        low ^= (hash[i] & 0xFFL) << shift;
+      }
+    }
+    return new TemplateKey(high, low);
+  }
+
+  private static MessageDigest getDigest(String algorithm) {
+    try {
+      return MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalArgumentException("No such algorithm available " + algorithm, e);
+    }
+  }
+}
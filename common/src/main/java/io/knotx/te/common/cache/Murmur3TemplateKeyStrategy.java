@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+/**
+ * MurmurHash3 x64 128-bit hash computed directly over UTF-16 code units of the source, so no byte
+ * copy of the template is allocated. Produces the same hash as Guava's {@code
+ * Hashing.murmur3_128().hashUnencodedChars(source)}.
+ */
+final class Murmur3TemplateKeyStrategy implements TemplateKeyStrategy {
+
+  static final Murmur3TemplateKeyStrategy INSTANCE = new Murmur3TemplateKeyStrategy();
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+  private static final int CHARS_PER_BLOCK = 8;
+
+  private Murmur3TemplateKeyStrategy() {
+    // singleton
+  }
+
+  @Override
+  public TemplateKey keyOf(CharSequence source) {
+    int length = source.length();
+    long h1 = 0;
+    long h2 = 0;
+
+    int position = 0;
+    for (int end = length - length % CHARS_PER_BLOCK; position < end;
+        position += CHARS_PER_BLOCK) {
+      long k1 = chars(source, position, 4);
+      long k2 = chars(source, position + 4, 4);
+
+      h1 ^= mixK1(k1);
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      h2 ^= mixK2(k2);
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    int remaining = length - position;
+    if (remaining > 4) {
+      h2 ^= mixK2(chars(source, position + 4, remaining - 4));
+    }
+    if (remaining > 0) {
+      h1 ^= mixK1(chars(source, position, Math.min(remaining, 4)));
+    }
+
+    long bytes = 2L * length;
+    h1 ^= bytes;
+    h2 ^= bytes;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    return new TemplateKey(h1, h2);
+  }
+
+  private static long chars(CharSequence source, int from, int count) {
+    long result = 0;
+    for (int i = 0; i < count; i++) {
+      result |= ((long) source.charAt(from + i)) << (16 * i);
+    }
+    return result;
+  }
+
+  private static long mixK1(long k1) {
+    k1 *= C1;
+    k1 = Long.rotateLeft(k1, 31);
+    k1 *= C2;
+    return k1;
+  }
+
+  private static long mixK2(long k2) {
+    k2 *= C2;
+    k2 = Long.rotateLeft(k2, 33);
+    k2 *= C1;
+    return k2;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
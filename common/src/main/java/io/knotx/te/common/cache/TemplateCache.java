@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.knotx.te.api.exception.TemplateCompilationException;
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of compiled templates shared by template engines. Templates are identified by keys computed
+ * from their sources with a {@link TemplateKeyStrategy} and compiled on the first use. When Vert.x
+ * Micrometer metrics are enabled, cache statistics and compilation times are published tagged with
+ * the engine name, and removed when the cache is closed. Compilation failures are cached for a
+ * short time, so a broken template is not compiled again on every use. Optionally, each thread
+ * keeps recently used templates in a small unsynchronized local cache consulted first; templates
+ * removed from the shared cache are marked invalid, so local caches stop serving them. Instances
+ * are thread-safe.
+ *
+ * @param <T> compiled template type
+ */
+public final class TemplateCache<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplateCache.class);
+
+  private static final long EVICTION_WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+  private final LoadingCache<TemplateKey, Entry<T>> cache;
+  private final Cache<TemplateKey, Failure> failures;
+  private final TemplateKeyStrategy keyStrategy;
+  private final boolean keyVerification;
+  private final TemplateCompiler<T> compiler;
+  private final boolean enabled;
+  private final AtomicLong lastEvictionWarning;
+  private final Timer compileTimer;
+  private final ThreadLocal<LocalCache<T>> localCache;
+  private final LongAdder localHits;
+  private final LongAdder localMisses;
+  private final MeterRegistry registry;
+  private final Tags instanceTags;
+
+  /**
+   * @param engine template engine factory name, used to tag metrics
+   * @param options cache options
+   * @param keyStrategy strategy computing keys of templates sources
+   * @param keyVerification flag indicating whether the source of a cached template is compared
+   * with the requested one
+   * @param compiler compiles templates sources
+   */
+  public TemplateCache(String engine, TemplateCacheOptions options,
+      TemplateKeyStrategy keyStrategy, boolean keyVerification, TemplateCompiler<T> compiler) {
+    this.keyStrategy = keyStrategy;
+    this.keyVerification = keyVerification;
+    this.compiler = compiler;
+    this.enabled = isEnabled(options);
+    this.lastEvictionWarning = new AtomicLong(System.nanoTime() - EVICTION_WARNING_INTERVAL);
+    this.registry = TemplateEngineMetrics.registry().orElse(null);
+    this.cache = createCache(options, registry != null);
+    this.failures = createFailuresCache(options);
+    int localCacheSize = options.getLocalCacheSize();
+    this.localCache = localCacheSize > 0
+        ? ThreadLocal.withInitial(() -> new LocalCache<>(localCacheSize)) : null;
+    this.localHits = new LongAdder();
+    this.localMisses = new LongAdder();
+    if (registry != null) {
+      this.instanceTags = TemplateEngineMetrics.instanceTags(engine);
+      CaffeineCacheMetrics.monitor(registry, cache, TemplateEngineMetrics.TEMPLATE_CACHE,
+          instanceTags);
+      this.compileTimer = registry.timer(TemplateEngineMetrics.COMPILE_TIMER,
+          Tags.of(TemplateEngineMetrics.ENGINE_TAG, engine));
+      if (localCache != null) {
+        monitorLocalCache(instanceTags);
+      }
+    } else {
+      this.instanceTags = null;
+      this.compileTimer = null;
+    }
+  }
+
+  /**
+   * Returns the compiled template, compiling the source when it is not cached yet. When the cache
+   * is bounded to zero templates, the source is compiled on every call.
+   *
+   * @param source template source
+   * @return compiled template
+   * @throws TemplateCompilationException when the source can not be compiled
+   */
+  public T get(String source) {
+    if (!enabled) {
+      return compile(source).template;
+    }
+    TemplateKey templateKey = keyStrategy.keyOf(source);
+    Entry<T> entry = getLocally(templateKey);
+    if (entry == null) {
+      entry = cache.get(templateKey, key -> compileOrFail(key, source));
+      putLocally(templateKey, entry);
+    }
+    if (keyVerification && !source.equals(entry.source)) {
+      LOGGER.warn("Cache key collision detected, compiling template without cache");
+      return compile(source).template;
+    }
+    return entry.template;
+  }
+
+  /**
+   * @return cache statistics, empty unless {@code recordStats} is enabled
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * @return hits and misses of the local caches of all threads, empty when they are disabled
+   */
+  public CacheStats localStats() {
+    return new CacheStats(localHits.sum(), localMisses.sum(), 0L, 0L, 0L, 0L, 0L);
+  }
+
+  /**
+   * @return approximate number of cached templates
+   */
+  public long estimatedSize() {
+    return cache.estimatedSize();
+  }
+
+  /**
+   * Removes the cache meters, so a stopped engine no longer publishes them. The cache remains
+   * usable.
+   */
+  public void close() {
+    if (registry != null) {
+      TemplateEngineMetrics.removeMeters(registry, instanceTags);
+    }
+  }
+
+  /**
+   * Removes all cached templates.
+   */
+  public void invalidateAll() {
+    cache.asMap().values().forEach(Entry::invalidate);
+    cache.invalidateAll();
+  }
+
+  private Entry<T> getLocally(TemplateKey key) {
+    if (localCache == null) {
+      return null;
+    }
+    LocalCache<T> local = localCache.get();
+    Entry<T> entry = local.get(key);
+    if (entry != null && entry.valid) {
+      localHits.increment();
+      return entry;
+    }
+    if (entry != null) {
+      local.remove(key);
+    }
+    localMisses.increment();
+    return null;
+  }
+
+  private void putLocally(TemplateKey key, Entry<T> entry) {
+    if (localCache != null) {
+      localCache.get().put(key, entry);
+    }
+  }
+
+  private void monitorLocalCache(Tags tags) {
+    Tags localTags = tags.and("cache", TemplateEngineMetrics.LOCAL_TEMPLATE_CACHE);
+    FunctionCounter.builder("cache.gets", localHits, LongAdder::sum)
+        .tags(localTags.and("result", "hit"))
+        .register(registry);
+    FunctionCounter.builder("cache.gets", localMisses, LongAdder::sum)
+        .tags(localTags.and("result", "miss"))
+        .register(registry);
+  }
+
+  private Entry<T> compileOrFail(TemplateKey key, String source) {
+    if (failures == null) {
+      return compile(source);
+    }
+    Failure failure = failures.getIfPresent(key);
+    if (failure != null && (!keyVerification || source.equals(failure.source))) {
+      throw new TemplateCompilationException(failure.cause);
+    }
+    try {
+      return compile(source);
+    } catch (TemplateCompilationException e) {
+      failures.put(key, new Failure(source, e.getCause()));
+      throw e;
+    }
+  }
+
+  private Entry<T> compile(String source) {
+    long start = System.nanoTime();
+    try {
+      return new Entry<>(source, compiler.compile(source));
+    } catch (Exception e) {
+      throw new TemplateCompilationException(e);
+    } finally {
+      if (compileTimer != null) {
+        compileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  private static boolean isEnabled(TemplateCacheOptions options) {
+    Long bound = options.getMaximumWeight() != null ? options.getMaximumWeight()
+        : options.getMaximumSize();
+    return bound == null || bound > 0;
+  }
+
+  private LoadingCache<TemplateKey, Entry<T>> createCache(TemplateCacheOptions options,
+      boolean recordStats) {
+    Caffeine<Object, Object> builder = Caffeine.newBuilder();
+    if (options.getMaximumWeight() != null) {
+      builder.maximumWeight(options.getMaximumWeight())
+          .weigher((TemplateKey key, Entry<T> entry) -> entry.source.length());
+    } else if (options.getMaximumSize() != null) {
+      builder.maximumSize(options.getMaximumSize());
+    } else {
+      builder.maximumSize(TemplateCacheOptions.DEFAULT_MAXIMUM_SIZE);
+    }
+    if (options.getExpireAfterAccess() > 0) {
+      builder.expireAfterAccess(options.getExpireAfterAccess(), TimeUnit.MILLISECONDS);
+    }
+    if (options.getRefreshAfterWrite() > 0) {
+      builder.refreshAfterWrite(options.getRefreshAfterWrite(), TimeUnit.MILLISECONDS);
+    }
+    if (recordStats || options.isRecordStats()) {
+      builder.recordStats();
+    }
+    return builder
+        .removalListener((TemplateKey key, Entry<T> entry, RemovalCause cause) -> {
+          if (entry != null) {
+            entry.invalidate();
+          }
+          if (cause == RemovalCause.SIZE) {
+            warnAboutEviction();
+          }
+        })
+        .build(new CacheLoader<TemplateKey, Entry<T>>() {
+          // templates are compiled from their sources passed to get, never loaded by key alone
+          @Override
+          public Entry<T> load(TemplateKey key) {
+            throw new TemplateCompilationException(
+                "Template " + key + " is not cached and can not be compiled without its source");
+          }
+
+          // sources are immutable, recompiling picks up changed helpers and extensions only
+          @Override
+          public Entry<T> reload(TemplateKey key, Entry<T> oldEntry) {
+            return compile(oldEntry.source);
+          }
+        });
+  }
+
+  private Cache<TemplateKey, Failure> createFailuresCache(TemplateCacheOptions options) {
+    if (options.getFailuresTimeToLive() <= 0) {
+      return null;
+    }
+    return Caffeine.newBuilder()
+        .maximumSize(options.getFailuresMaximumSize())
+        .expireAfterWrite(options.getFailuresTimeToLive(), TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  private void warnAboutEviction() {
+    long now = System.nanoTime();
+    long last = lastEvictionWarning.get();
+    if (now - last >= EVICTION_WARNING_INTERVAL && lastEvictionWarning.compareAndSet(last, now)) {
+      LOGGER.warn("Cache limit exceeded. Revisit 'cache' settings");
+    }
+  }
+
+  private static final class Failure {
+
+    private final String source;
+    private final Throwable cause;
+
+    private Failure(String source, Throwable cause) {
+      this.source = source;
+      this.cause = cause;
+    }
+  }
+
+  private static final class Entry<T> {
+
+    private final String source;
+    private final T template;
+    private volatile boolean valid = true;
+
+    private Entry(String source, T template) {
+      this.source = source;
+      this.template = template;
+    }
+
+    private void invalidate() {
+      valid = false;
+    }
+  }
+
+  private static final class LocalCache<T> extends LinkedHashMap<TemplateKey, Entry<T>> {
+
+    private final int maximumSize;
+
+    private LocalCache(int maximumSize) {
+      super(16, 0.75f, true);
+      this.maximumSize = maximumSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<TemplateKey, Entry<T>> eldest) {
+      return size() > maximumSize;
+    }
+  }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the compiled templates cache. The cache uses a frequency-based (W-TinyLFU) admission
+ * policy, so templates rendered only once do not evict frequently used ones.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class TemplateCacheOptions {
+
+  public static final long DEFAULT_MAXIMUM_SIZE = 1000L;
+  public static final long DEFAULT_FAILURES_MAXIMUM_SIZE = 1000L;
+  public static final long DEFAULT_FAILURES_TIME_TO_LIVE = 10_000L;
+
+  private Long maximumSize;
+  private Long maximumWeight;
+  private long expireAfterAccess;
+  private long refreshAfterWrite;
+  private boolean recordStats;
+  private long failuresMaximumSize;
+  private long failuresTimeToLive;
+  private int localCacheSize;
+
+  public TemplateCacheOptions() {
+    init();
+  }
+
+  public TemplateCacheOptions(TemplateCacheOptions other) {
+    this.maximumSize = other.maximumSize;
+    this.maximumWeight = other.maximumWeight;
+    this.expireAfterAccess = other.expireAfterAccess;
+    this.refreshAfterWrite = other.refreshAfterWrite;
+    this.recordStats = other.recordStats;
+    this.failuresMaximumSize = other.failuresMaximumSize;
+    this.failuresTimeToLive = other.failuresTimeToLive;
+    this.localCacheSize = other.localCacheSize;
+  }
+
+  public TemplateCacheOptions(JsonObject json) {
+    init();
+    TemplateCacheOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    TemplateCacheOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  private void init() {
+    failuresMaximumSize = DEFAULT_FAILURES_MAXIMUM_SIZE;
+    failuresTimeToLive = DEFAULT_FAILURES_TIME_TO_LIVE;
+  }
+
+  /**
+   * @return maximum number of cached templates
+   */
+  public Long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Sets the maximum number of cached templates. It is ignored when {@code maximumWeight} is set.
+   * {@code 0} disables the cache, so templates are compiled on every use. Default is {@code 1000}.
+   *
+   * @param maximumSize maximum number of cached templates
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setMaximumSize(Long maximumSize) {
+    this.maximumSize = maximumSize;
+    return this;
+  }
+
+  /**
+   * @return maximum total length of cached templates sources
+   */
+  public Long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  /**
+   * Sets the maximum total length (in characters) of cached templates sources. When set, the cache
+   * is bounded by the templates size instead of their number. Not set by default.
+   *
+   * @param maximumWeight maximum total length of cached templates sources
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setMaximumWeight(Long maximumWeight) {
+    this.maximumWeight = maximumWeight;
+    return this;
+  }
+
+  /**
+   * @return expiration time in milliseconds
+   */
+  public long getExpireAfterAccess() {
+    return expireAfterAccess;
+  }
+
+  /**
+   * Sets the time (in milliseconds) after which a template that was not used is removed from the
+   * cache. Default is {@code 0}, which means templates never expire.
+   *
+   * @param expireAfterAccess expiration time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setExpireAfterAccess(long expireAfterAccess) {
+    this.expireAfterAccess = expireAfterAccess;
+    return this;
+  }
+
+  /**
+   * @return refresh time in milliseconds
+   */
+  public long getRefreshAfterWrite() {
+    return refreshAfterWrite;
+  }
+
+  /**
+   * Sets the time (in milliseconds) after which a used template is compiled again in the
+   * background. The previously compiled template is served until the refresh completes. Template
+   * sources never change, so it is useful only to rebuild templates after the helpers, filters or
+   * extensions they are compiled with change at runtime, otherwise it only costs CPU. Default is
+   * {@code 0}, which means templates are never refreshed.
+   *
+   * @param refreshAfterWrite refresh time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setRefreshAfterWrite(long refreshAfterWrite) {
+    this.refreshAfterWrite = refreshAfterWrite;
+    return this;
+  }
+
+  /**
+   * @return flag indicating whether cache statistics are recorded
+   */
+  public boolean isRecordStats() {
+    return recordStats;
+  }
+
+  /**
+   * Sets whether hits, misses, compilation times and evictions are recorded. They are always
+   * recorded when Vert.x Micrometer metrics are enabled. Default is {@code false}.
+   *
+   * @param recordStats flag indicating whether cache statistics are recorded
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setRecordStats(boolean recordStats) {
+    this.recordStats = recordStats;
+    return this;
+  }
+
+  /**
+   * @return maximum number of cached compilation failures
+   */
+  public long getFailuresMaximumSize() {
+    return failuresMaximumSize;
+  }
+
+  /**
+   * Sets the maximum number of templates whose compilation failures are cached. Default is {@code
+   * 1000}.
+   *
+   * @param failuresMaximumSize maximum number of cached compilation failures
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setFailuresMaximumSize(long failuresMaximumSize) {
+    this.failuresMaximumSize = failuresMaximumSize;
+    return this;
+  }
+
+  /**
+   * @return time to live of cached compilation failures in milliseconds
+   */
+  public long getFailuresTimeToLive() {
+    return failuresTimeToLive;
+  }
+
+  /**
+   * Sets the time (in milliseconds) during which a template that failed to compile is not compiled
+   * again, and the stored failure is reported instead. Default is {@code 10000}, {@code 0} disables
+   * caching of compilation failures.
+   *
+   * @param failuresTimeToLive time to live of cached compilation failures in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setFailuresTimeToLive(long failuresTimeToLive) {
+    this.failuresTimeToLive = failuresTimeToLive;
+    return this;
+  }
+
+  /**
+   * @return maximum number of templates cached locally by each thread
+   */
+  public int getLocalCacheSize() {
+    return localCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of compiled templates each thread (e.g. an event loop) keeps in its
+   * own unsynchronized cache, consulted before the shared one. Templates removed from the shared
+   * cache are not served locally anymore. Default is {@code 0}, which disables local caches.
+   *
+   * @param localCacheSize maximum number of templates cached locally by each thread
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateCacheOptions setLocalCacheSize(int localCacheSize) {
+    this.localCacheSize = localCacheSize;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "TemplateCacheOptions{" +
+        "maximumSize=" + maximumSize +
+        ", maximumWeight=" + maximumWeight +
+        ", expireAfterAccess=" + expireAfterAccess +
+        ", refreshAfterWrite=" + refreshAfterWrite +
+        ", recordStats=" + recordStats +
+        ", failuresMaximumSize=" + failuresMaximumSize +
+        ", failuresTimeToLive=" + failuresTimeToLive +
+        ", localCacheSize=" + localCacheSize +
+        '}';
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+/**
+ * Compiles template sources stored in the {@link TemplateCache}.
+ *
+ * @param <T> compiled template type
+ */
+@FunctionalInterface
+public interface TemplateCompiler<T> {
+
+  /**
+   * @param source template source
+   * @return compiled template
+   * @throws Exception when the source can not be compiled
+   */
+  T compile(String source) throws Exception;
+
+}
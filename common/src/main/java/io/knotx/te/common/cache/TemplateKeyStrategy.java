@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+/**
+ * Computes cache keys of template sources. Implementations are thread-safe.
+ */
+public interface TemplateKeyStrategy {
+
+  /**
+   * Name of the default strategy, a fast non-cryptographic MurmurHash3 (x64, 128-bit) hash.
+   */
+  String MURMUR3_128 = "MURMUR3_128";
+
+  /**
+   * Creates a strategy for the algorithm name. {@code MURMUR3_128} selects the non-cryptographic
+   * MurmurHash3, any other name is treated as a standard Java Security {@link
+   * java.security.MessageDigest} algorithm name (such as "SHA", "MD5", and so on).
+   *
+   * @param algorithm algorithm name
+   * @return key strategy
+   * @throws IllegalArgumentException when the algorithm is not available
+   */
+  static TemplateKeyStrategy forAlgorithm(String algorithm) {
+    if (algorithm == null || MURMUR3_128.equalsIgnoreCase(algorithm)) {
+      return Murmur3TemplateKeyStrategy.INSTANCE;
+    }
+    return new MessageDigestTemplateKeyStrategy(algorithm);
+  }
+
+  /**
+   * @param source template source
+   * @return cache key of the template source
+   */
+  TemplateKey keyOf(CharSequence source);
+
+}
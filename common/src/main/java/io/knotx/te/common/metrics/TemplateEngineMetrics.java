@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.vertx.micrometer.backends.BackendRegistries;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Names of template engine meters published through Vert.x Micrometer metrics. All meters are
+ * tagged with the engine factory name. Meters reading the state of a single cache are also tagged
+ * with an instance id, so engine instances deployed in the same Vert.x instance do not hide each
+ * other's caches.
+ */
+public final class TemplateEngineMetrics {
+
+  /**
+   * Tag with the template engine factory name.
+   */
+  public static final String ENGINE_TAG = "engine";
+
+  /**
+   * Tag with the id of the cache instance, unique in the JVM.
+   */
+  public static final String INSTANCE_TAG = "engine.instance";
+
+  /**
+   * Name of the compiled templates cache, see Micrometer {@code cache.*} meters.
+   */
+  public static final String TEMPLATE_CACHE = "knotx.te.templates";
+
+  /**
+   * Name of the per-thread compiled templates caches, see Micrometer {@code cache.gets} meters.
+   */
+  public static final String LOCAL_TEMPLATE_CACHE = "knotx.te.templates.local";
+
+  /**
+   * Name of the rendered output cache, see Micrometer {@code cache.*} meters.
+   */
+  public static final String OUTPUT_CACHE = "knotx.te.outputs";
+
+  /**
+   * Timer of template compilations.
+   */
+  public static final String COMPILE_TIMER = "knotx.te.compile";
+
+  /**
+   * Timer of fragment processing.
+   */
+  public static final String RENDER_TIMER = "knotx.te.render";
+
+  /**
+   * Distribution of rendered output sizes (in characters).
+   */
+  public static final String OUTPUT_SIZE = "knotx.te.output.size";
+
+  /**
+   * Counter of renders of templates without expressions, served as their source.
+   */
+  public static final String STATIC_TEMPLATES = "knotx.te.static";
+
+  /**
+   * Counter of fragment processing failures.
+   */
+  public static final String FAILURES = "knotx.te.failures";
+
+  /**
+   * Counter of fragments rejected because the Knot was overloaded.
+   */
+  public static final String REJECTIONS = "knotx.te.overloaded";
+
+  private static final AtomicLong INSTANCES = new AtomicLong();
+
+  private TemplateEngineMetrics() {
+    // utility class
+  }
+
+  /**
+   * @return the default Vert.x Micrometer registry, empty when Vert.x metrics are not enabled
+   */
+  public static Optional<MeterRegistry> registry() {
+    return Optional.ofNullable(BackendRegistries.getDefaultNow());
+  }
+
+  /**
+   * @param engine template engine factory name
+   * @return tags of meters of a single instance: the engine name and a new instance id
+   */
+  public static Tags instanceTags(String engine) {
+    return Tags.of(ENGINE_TAG, engine, INSTANCE_TAG, Long.toString(INSTANCES.incrementAndGet()));
+  }
+
+  /**
+   * Removes meters tagged with all the given tags, e.g. meters of a closed instance.
+   *
+   * @param registry registry the meters are registered in
+   * @param tags tags of removed meters
+   */
+  public static void removeMeters(MeterRegistry registry, Tags tags) {
+    List<Tag> removed = tags.stream().collect(Collectors.toList());
+    registry.getMeters().stream()
+        .filter(meter -> meter.getId().getTags().containsAll(removed))
+        .forEach(registry::remove);
+  }
+
+}
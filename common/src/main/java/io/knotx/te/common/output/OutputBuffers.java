@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.output;
+
+import io.knotx.te.common.budget.RenderBudget;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Per-thread reusable output buffers for rendering templates to {@code String}. A thread renders
+ * into its own buffer, sized with the template's {@link OutputSizeEstimate}, so steady-state renders
+ * neither allocate nor resize backing arrays. Buffers that grew above {@link #MAX_RETAINED_SIZE}
+ * characters are not retained, and nested renders on the same thread get a fresh buffer. Written
+ * characters are reported to the {@link RenderBudget} active on the thread, if any.
+ */
+public final class OutputBuffers {
+
+  /**
+   * Maximum capacity, in characters, of a buffer kept for the next render on the same thread.
+   */
+  public static final int MAX_RETAINED_SIZE = 256 * 1024;
+
+  private static final ThreadLocal<OutputBuffer> BUFFERS = ThreadLocal
+      .withInitial(() -> new OutputBuffer(OutputSizeEstimate.DEFAULT_SIZE));
+
+  private OutputBuffers() {
+    // utility class
+  }
+
+  /**
+   * Renders into a reusable buffer and returns its content.
+   *
+   * @param estimate expected output size, updated with the rendered output size
+   * @param renderer writes the output into the given writer
+   * @return rendered output
+   * @throws IOException when rendering fails
+   */
+  public static String render(OutputSizeEstimate estimate, Renderer renderer) throws IOException {
+    OutputBuffer buffer = BUFFERS.get();
+    if (buffer.inUse) {
+      buffer = new OutputBuffer(estimate.get());
+    }
+    buffer.acquire(estimate.get());
+    try {
+      renderer.render(buffer);
+      String output = buffer.builder.toString();
+      estimate.record(output.length());
+      return output;
+    } finally {
+      buffer.release();
+    }
+  }
+
+  /**
+   * Writes rendered output.
+   */
+  @FunctionalInterface
+  public interface Renderer {
+
+    void render(Writer writer) throws IOException;
+  }
+
+  private static final class OutputBuffer extends Writer {
+
+    private StringBuilder builder;
+    private boolean inUse;
+    private RenderBudget budget;
+
+    private OutputBuffer(int capacity) {
+      this.builder = new StringBuilder(capacity);
+    }
+
+    private void acquire(int capacity) {
+      inUse = true;
+      budget = RenderBudget.active();
+      builder.ensureCapacity(capacity);
+    }
+
+    private void release() {
+      inUse = false;
+      budget = null;
+      if (builder.capacity() > MAX_RETAINED_SIZE) {
+        builder = new StringBuilder(OutputSizeEstimate.DEFAULT_SIZE);
+      } else {
+        builder.setLength(0);
+      }
+    }
+
+    @Override
+    public void write(int c) {
+      report(1);
+      builder.append((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      report(len);
+      builder.append(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str) {
+      report(str.length());
+      builder.append(str);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      report(len);
+      builder.append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+      int length = builder.length();
+      builder.append(csq);
+      report(builder.length() - length);
+      return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) {
+      report(end - start);
+      builder.append(csq, start, end);
+      return this;
+    }
+
+    @Override
+    public Writer append(char c) {
+      report(1);
+      builder.append(c);
+      return this;
+    }
+
+    private void report(int length) {
+      if (budget != null) {
+        budget.write(length);
+      }
+    }
+
+    @Override
+    public void flush() {
+      // nothing to flush
+    }
+
+    @Override
+    public void close() {
+      // released after rendering
+    }
+  }
+
+}
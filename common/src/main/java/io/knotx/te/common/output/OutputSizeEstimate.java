@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.output;
+
+/**
+ * Expected output size of a template, learned from its renders. It grows immediately to fit the
+ * largest recent output and shrinks slowly, so buffers sized with it are rarely resized. Updates
+ * from concurrent renders may be lost, which only makes the estimate less accurate.
+ */
+public final class OutputSizeEstimate {
+
+  static final int DEFAULT_SIZE = 256;
+
+  private volatile int expected = DEFAULT_SIZE;
+
+  /**
+   * @return expected output size in characters
+   */
+  public int get() {
+    return expected;
+  }
+
+  /**
+   * Records the size of a rendered output.
+   *
+   * @param size output size in characters
+   */
+  public void record(int size) {
+    int current = expected;
+    int next = Math.max(size + (size >>> 3), current - (current >>> 4));
+    if (next != current) {
+      expected = next;
+    }
+  }
+
+}
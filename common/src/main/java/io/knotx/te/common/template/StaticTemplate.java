@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.template;
+
+import io.knotx.te.api.CompiledTemplate;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Template without any expressions, rendered as its source regardless of the payload. Templates
+ * with the same source are equal.
+ */
+public final class StaticTemplate implements CompiledTemplate {
+
+  private final String source;
+  private final LongAdder renders;
+
+  public StaticTemplate(String source) {
+    this(source, null);
+  }
+
+  StaticTemplate(String source, LongAdder renders) {
+    this.source = source;
+    this.renders = renders;
+  }
+
+  @Override
+  public String render(JsonObject payload) {
+    countRender();
+    return source;
+  }
+
+  @Override
+  public void render(JsonObject payload, Writer writer) throws IOException {
+    countRender();
+    writer.write(source);
+  }
+
+  @Override
+  public JsonObject prune(JsonObject payload) {
+    return new JsonObject();
+  }
+
+  private void countRender() {
+    if (renders != null) {
+      renders.increment();
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return source.equals(((StaticTemplate) o).source);
+  }
+
+  @Override
+  public int hashCode() {
+    return source.hashCode();
+  }
+
+}
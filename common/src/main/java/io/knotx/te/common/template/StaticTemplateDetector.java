@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.template;
+
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects templates without any expressions, which engines may cache as a {@link StaticTemplate}
+ * instead of compiling them, so the source is scanned once per cached template and not on every
+ * render. A template is static when it contains none of the engine's opening delimiters. Renders of
+ * static templates are counted. Instances are thread-safe.
+ */
+public final class StaticTemplateDetector {
+
+  private final String[] openDelimiters;
+  private final LongAdder staticRenders;
+  private final MeterRegistry registry;
+  private final Tags instanceTags;
+
+  /**
+   * @param engine template engine factory name, used to tag metrics
+   * @param openDelimiters opening delimiters of all engine expressions, tags and comments
+   */
+  public StaticTemplateDetector(String engine, String... openDelimiters) {
+    this.openDelimiters = openDelimiters.clone();
+    this.staticRenders = new LongAdder();
+    this.registry = TemplateEngineMetrics.registry().orElse(null);
+    this.instanceTags = TemplateEngineMetrics.instanceTags(engine);
+    if (registry != null) {
+      FunctionCounter
+          .builder(TemplateEngineMetrics.STATIC_TEMPLATES, staticRenders, LongAdder::sum)
+          .tags(instanceTags)
+          .register(registry);
+    }
+  }
+
+  /**
+   * Checks whether the template has no expressions.
+   *
+   * @param source template source
+   * @return {@code true} when the template contains no opening delimiters
+   */
+  public boolean isStatic(String source) {
+    for (String delimiter : openDelimiters) {
+      if (source.contains(delimiter)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param source template source
+   * @return static template counting its renders, {@code null} when the template has expressions
+   */
+  public StaticTemplate staticTemplateOf(String source) {
+    return isStatic(source) ? new StaticTemplate(source, staticRenders) : null;
+  }
+
+  /**
+   * @return number of renders of the static templates created by this detector
+   */
+  public long getStaticRendersCount() {
+    return staticRenders.sum();
+  }
+
+  /**
+   * Removes the static templates counter, so a stopped engine no longer publishes it.
+   */
+  public void close() {
+    if (registry != null) {
+      TemplateEngineMetrics.removeMeters(registry, instanceTags);
+    }
+  }
+
+}
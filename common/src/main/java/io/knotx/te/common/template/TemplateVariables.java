@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.template;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Payload paths a compiled template may reference, found by a compile-time analysis of the
+ * template. A path is a list of keys starting at the payload root, e.g. {@code [_result, items]},
+ * and its whole subtree is referenced. When the analysis can not tell what a template reads, all
+ * the payload is referenced. Instances are immutable.
+ */
+public final class TemplateVariables {
+
+  private static final TemplateVariables ALL = new TemplateVariables(null);
+
+  private final Node root;
+
+  private TemplateVariables(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * @return variables referencing the whole payload
+   */
+  public static TemplateVariables all() {
+    return ALL;
+  }
+
+  /**
+   * @param paths referenced paths, each a list of keys starting at the payload root; an empty path
+   * references the whole payload
+   * @return variables referencing the given paths only
+   */
+  public static TemplateVariables of(Collection<? extends List<String>> paths) {
+    if (paths.stream().anyMatch(List::isEmpty)) {
+      return ALL;
+    }
+    Node root = new Node();
+    paths.forEach(root::add);
+    return new TemplateVariables(root);
+  }
+
+  /**
+   * @return {@code true} when the whole payload is referenced
+   */
+  public boolean isAll() {
+    return root == null;
+  }
+
+  /**
+   * @return referenced paths with keys joined by dots, empty when the whole payload is referenced
+   */
+  public Set<String> getPaths() {
+    Set<String> paths = new TreeSet<>();
+    if (root != null) {
+      root.collect("", paths);
+    }
+    return paths;
+  }
+
+  /**
+   * Creates a payload with the referenced subtrees only. Values are shared with the original
+   * payload, only JSON objects on the way to referenced paths are recreated.
+   *
+   * @param payload the payload to prune
+   * @return the pruned payload, the payload itself when the whole payload is referenced
+   */
+  public JsonObject prune(JsonObject payload) {
+    return root == null ? payload : root.prune(payload);
+  }
+
+  @Override
+  public String toString() {
+    return isAll() ? "TemplateVariables{all}" : "TemplateVariables{" + getPaths() + "}";
+  }
+
+  private static final class Node {
+
+    private Map<String, Node> children = new LinkedHashMap<>();
+
+    private void add(List<String> path) {
+      Node node = this;
+      for (String key : path) {
+        if (node.children == null) {
+          return;
+        }
+        node = node.children.computeIfAbsent(key, k -> new Node());
+      }
+      node.children = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonObject prune(JsonObject source) {
+      Map<String, Object> values = source.getMap();
+      JsonObject pruned = new JsonObject(new LinkedHashMap<>(children.size()));
+      for (Entry<String, Node> child : children.entrySet()) {
+        String key = child.getKey();
+        if (!values.containsKey(key)) {
+          continue;
+        }
+        Object value = values.get(key);
+        Node node = child.getValue();
+        if (node.children != null && value instanceof JsonObject) {
+          value = node.prune((JsonObject) value);
+        } else if (node.children != null && value instanceof Map) {
+          value = node.prune(new JsonObject((Map<String, Object>) value));
+        }
+        pruned.getMap().put(key, value);
+      }
+      return pruned;
+    }
+
+    private void collect(String prefix, Set<String> paths) {
+      if (children == null) {
+        paths.add(prefix);
+      } else {
+        children.forEach((key, child) -> child.collect(prefix.isEmpty() ? key : prefix + "." + key,
+            paths));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.budget;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RenderBudgetTest {
+
+  @Test
+  @DisplayName("Expect budget active only within its scope, restoring the outer budget")
+  void expectBudgetActiveWithinScope() {
+    RenderBudget outer = RenderBudget.start().setTimeout(1000);
+    RenderBudget inner = RenderBudget.start().setTimeout(1000);
+
+    try (RenderBudget.Scope outerScope = outer.activate()) {
+      try (RenderBudget.Scope innerScope = inner.activate()) {
+        assertSame(inner, RenderBudget.active());
+      }
+      assertSame(outer, RenderBudget.active());
+    }
+    assertNull(RenderBudget.active());
+  }
+
+  @Test
+  @DisplayName("Expect RenderTimeoutException once iterations pass the deadline")
+  void expectTimeoutAfterDeadline() throws InterruptedException {
+    RenderBudget budget = RenderBudget.start().setTimeout(1);
+    Thread.sleep(5);
+
+    for (int i = 1; i < RenderBudget.CHECK_INTERVAL; i++) {
+      budget.iterate();
+    }
+    assertThrows(RenderTimeoutException.class, budget::iterate);
+  }
+
+  @Test
+  @DisplayName("Expect RenderLimitExceededException when the bound writer exceeds max output size")
+  void expectOutputSizeLimited() throws IOException {
+    StringWriter output = new StringWriter();
+    Writer writer = RenderBudget.start().setMaxOutputSize(8).bound(output);
+
+    writer.write("12345");
+    writer.append("678");
+
+    assertThrows(RenderLimitExceededException.class, () -> writer.write('9'));
+    assertEquals("12345678", output.toString());
+  }
+
+  @Test
+  @DisplayName("Expect RenderLimitExceededException when iterations exceed max iterations")
+  void expectIterationsLimited() {
+    RenderBudget budget = RenderBudget.start().setMaxIterations(3);
+
+    budget.iterate();
+    budget.iterate();
+    budget.iterate();
+
+    assertThrows(RenderLimitExceededException.class, budget::iterate);
+  }
+
+  @Test
+  @DisplayName("Expect no exception before the deadline")
+  void expectNoTimeoutBeforeDeadline() {
+    RenderBudget budget = RenderBudget.start().setTimeout(60000);
+
+    for (int i = 0; i < RenderBudget.CHECK_INTERVAL * 2; i++) {
+      budget.iterate();
+    }
+    budget.checkDeadline();
+  }
+}
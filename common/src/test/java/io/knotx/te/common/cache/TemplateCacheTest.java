@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.te.api.exception.TemplateCompilationException;
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TemplateCacheTest {
+
+  private static final TemplateKeyStrategy CONSTANT_KEY_STRATEGY =
+      source -> new TemplateKey(1L, 1L);
+
+  private final AtomicInteger compilations = new AtomicInteger();
+
+  @Test
+  @DisplayName("Expect template compiled once and served from the cache afterwards")
+  void expectTemplateCompiledOnce() {
+    TemplateCache<String> cache = new TemplateCache<>("test", new TemplateCacheOptions(),
+        TemplateKeyStrategy.forAlgorithm(null), false, this::compile);
+
+    String first = cache.get("{{name}}");
+    String second = cache.get("{{name}}");
+
+    assertSame(first, second);
+    assertEquals(1, compilations.get());
+  }
+
+  @Test
+  @DisplayName("Expect template compiled on every use when the cache is bounded to zero templates")
+  void expectTemplateCompiledOnEveryUseWhenDisabled() {
+    TemplateCache<String> cache = new TemplateCache<>("test",
+        new TemplateCacheOptions().setMaximumSize(0L), TemplateKeyStrategy.forAlgorithm(null),
+        false, this::compile);
+
+    cache.get("{{name}}");
+    cache.get("{{name}}");
+
+    assertEquals(2, compilations.get());
+    assertEquals(0, cache.estimatedSize());
+  }
+
+  @Test
+  @DisplayName("Expect hits and misses recorded when stats recording is enabled")
+  void expectStatsRecorded() {
+    TemplateCache<String> cache = new TemplateCache<>("test",
+        new TemplateCacheOptions().setRecordStats(true), TemplateKeyStrategy.forAlgorithm(null),
+        false, this::compile);
+
+    cache.get("{{name}}");
+    cache.get("{{name}}");
+    cache.get("{{surname}}");
+
+    assertEquals(1, cache.stats().hitCount());
+    assertEquals(2, cache.stats().missCount());
+  }
+
+  @Test
+  @DisplayName("Expect cache options parsed from JSON")
+  void expectOptionsParsedFromJson() {
+    TemplateCacheOptions options = new TemplateCacheOptions(new JsonObject()
+        .put("maximumWeight", 1000000L)
+        .put("expireAfterAccess", 60000L)
+        .put("recordStats", true)
+        .put("localCacheSize", 16));
+
+    assertNull(options.getMaximumSize());
+    assertEquals(1000000L, options.getMaximumWeight().longValue());
+    assertEquals(60000L, options.getExpireAfterAccess());
+    assertEquals(0L, options.getRefreshAfterWrite());
+    assertTrue(options.isRecordStats());
+    assertEquals(16, options.getLocalCacheSize());
+  }
+
+  @Test
+  @DisplayName("Expect template served from the local cache once it was loaded by the thread")
+  void expectTemplateServedFromLocalCache() {
+    TemplateCache<String> cache = new TemplateCache<>("test",
+        new TemplateCacheOptions().setRecordStats(true).setLocalCacheSize(2),
+        TemplateKeyStrategy.forAlgorithm(null), false, this::compile);
+
+    String first = cache.get("{{name}}");
+    String second = cache.get("{{name}}");
+
+    assertSame(first, second);
+    assertEquals(1, cache.localStats().hitCount());
+    assertEquals(1, cache.localStats().missCount());
+    assertEquals(0, cache.stats().hitCount());
+    assertEquals(1, compilations.get());
+  }
+
+  @Test
+  @DisplayName("Expect local cache not serving templates invalidated in the shared cache")
+  void expectLocalCacheInvalidatedWithSharedCache() {
+    TemplateCache<String> cache = new TemplateCache<>("test",
+        new TemplateCacheOptions().setLocalCacheSize(2), TemplateKeyStrategy.forAlgorithm(null),
+        false, this::compile);
+
+    cache.get("{{name}}");
+    cache.invalidateAll();
+    cache.get("{{name}}");
+
+    assertEquals(0, cache.localStats().hitCount());
+    assertEquals(2, compilations.get());
+  }
+
+  @Test
+  @DisplayName("Expect local cache not serving templates evicted from the shared cache")
+  void expectLocalCacheInvalidatedOnEviction() throws InterruptedException {
+    TemplateCache<String> cache = new TemplateCache<>("test",
+        new TemplateCacheOptions().setMaximumSize(1L).setLocalCacheSize(4),
+        TemplateKeyStrategy.forAlgorithm(null), false, this::compile);
+
+    cache.get("{{name}}");
+    // shared cache evicts asynchronously, so local caches notice it after a while
+    for (int i = 0; i < 500 && compilations.get() < 3; i++) {
+      cache.get("{{surname}}");
+      cache.get("{{name}}");
+      Thread.sleep(10);
+    }
+
+    assertTrue(compilations.get() >= 3);
+  }
+
+  @Test
+  @DisplayName("Expect compilation failure reported with TemplateCompilationException")
+  void expectCompilationFailureWrapped() {
+    IOException error = new IOException("broken template");
+    TemplateCache<String> cache = new TemplateCache<>("test", new TemplateCacheOptions(),
+        TemplateKeyStrategy.forAlgorithm(null), false, source -> {
+      throw error;
+    });
+
+    TemplateCompilationException exception = assertThrows(TemplateCompilationException.class,
+        () -> cache.get("{{name"));
+
+    assertSame(error, exception.getCause());
+  }
+
+  @Test
+  @DisplayName("Expect compilation failure cached and reported without compiling again")
+  void expectCompilationFailureCached() {
+    IOException error = new IOException("broken template");
+    TemplateCache<String> cache = new TemplateCache<>("test", new TemplateCacheOptions(),
+        TemplateKeyStrategy.forAlgorithm(null), false, source -> {
+      compilations.incrementAndGet();
+      throw error;
+    });
+
+    assertThrows(TemplateCompilationException.class, () -> cache.get("{{name"));
+    TemplateCompilationException exception = assertThrows(TemplateCompilationException.class,
+        () -> cache.get("{{name"));
+
+    assertSame(error, exception.getCause());
+    assertEquals(1, compilations.get());
+  }
+
+  @Test
+  @DisplayName("Expect failing template compiled again when caching of failures is disabled")
+  void expectCompilationFailureNotCachedWhenDisabled() {
+    TemplateCache<String> cache = new TemplateCache<>("test",
+        new TemplateCacheOptions().setFailuresTimeToLive(0), TemplateKeyStrategy.forAlgorithm(null),
+        false, source -> {
+      compilations.incrementAndGet();
+      throw new IOException("broken template");
+    });
+
+    assertThrows(TemplateCompilationException.class, () -> cache.get("{{name"));
+    assertThrows(TemplateCompilationException.class, () -> cache.get("{{name"));
+
+    assertEquals(2, compilations.get());
+  }
+
+  @Test
+  @DisplayName("Expect colliding template compiled again when key verification is enabled")
+  void expectCollisionDetectedWithVerification() {
+    TemplateCache<String> cache = new TemplateCache<>("test", new TemplateCacheOptions(),
+        CONSTANT_KEY_STRATEGY, true, this::compile);
+
+    assertEquals("compiled {{name}}", cache.get("{{name}}"));
+    assertEquals("compiled {{surname}}", cache.get("{{surname}}"));
+  }
+
+  @Test
+  @DisplayName("Expect colliding template served from the cache when key verification is disabled")
+  void expectCollisionNotDetectedWithoutVerification() {
+    TemplateCache<String> cache = new TemplateCache<>("test", new TemplateCacheOptions(),
+        CONSTANT_KEY_STRATEGY, false, this::compile);
+
+    assertEquals("compiled {{name}}", cache.get("{{name}}"));
+    assertEquals("compiled {{name}}", cache.get("{{surname}}"));
+  }
+
+  @Test
+  @DisplayName("Expect cache and compilation meters published when Vert.x metrics are enabled")
+  void expectMetersPublished() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Vertx vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(new MicrometerMetricsOptions()
+        .setEnabled(true)
+        .setMicrometerRegistry(registry)));
+    try {
+      TemplateCache<String> cache = new TemplateCache<>("test", new TemplateCacheOptions(),
+          TemplateKeyStrategy.forAlgorithm(null), false, this::compile);
+
+      cache.get("{{name}}");
+      cache.get("{{name}}");
+
+      assertEquals(1, registry.get(TemplateEngineMetrics.COMPILE_TIMER)
+          .tag(TemplateEngineMetrics.ENGINE_TAG, "test").timer().count());
+      assertEquals(1.0, registry.get("cache.gets")
+          .tag("cache", TemplateEngineMetrics.TEMPLATE_CACHE)
+          .tag(TemplateEngineMetrics.ENGINE_TAG, "test")
+          .tag("result", "hit").functionCounter().count());
+    } finally {
+      vertx.close();
+    }
+  }
+
+  @Test
+  @DisplayName("Expect separate cache meters per instance, removed when the cache is closed")
+  void expectMetersPerInstanceRemovedOnClose() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Vertx vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(new MicrometerMetricsOptions()
+        .setEnabled(true)
+        .setMicrometerRegistry(registry)));
+    try {
+      TemplateCache<String> first = new TemplateCache<>("test", new TemplateCacheOptions(),
+          TemplateKeyStrategy.forAlgorithm(null), false, this::compile);
+      TemplateCache<String> second = new TemplateCache<>("test", new TemplateCacheOptions(),
+          TemplateKeyStrategy.forAlgorithm(null), false, this::compile);
+
+      first.get("{{name}}");
+      second.get("{{name}}");
+      second.get("{{name}}");
+
+      assertEquals(2, registry.get("cache.gets")
+          .tag("cache", TemplateEngineMetrics.TEMPLATE_CACHE)
+          .tag("result", "miss").functionCounters().size());
+      assertEquals(1.0, registry.get("cache.gets")
+          .tag("cache", TemplateEngineMetrics.TEMPLATE_CACHE)
+          .tag("result", "hit").functionCounters().stream()
+          .mapToDouble(FunctionCounter::count).sum());
+
+      first.close();
+
+      assertEquals(1, registry.get("cache.gets")
+          .tag("cache", TemplateEngineMetrics.TEMPLATE_CACHE)
+          .tag("result", "miss").functionCounters().size());
+      assertEquals(1, registry.get(TemplateEngineMetrics.COMPILE_TIMER).timers().size());
+    } finally {
+      vertx.close();
+    }
+  }
+
+  private String compile(String source) {
+    compilations.incrementAndGet();
+    return "compiled " + source;
+  }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.hash.Hashing;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TemplateKeyStrategyTest {
+
+  @Test
+  @DisplayName("Expect MurmurHash3 keys equal to Guava murmur3_128 over unencoded chars")
+  void expectMurmur3CompatibleWithGuava() {
+    TemplateKeyStrategy strategy = TemplateKeyStrategy.forAlgorithm("MURMUR3_128");
+    Random random = new Random(42);
+    for (int length = 0; length < 100; length++) {
+      String source = randomString(random, length);
+      ByteBuffer expected = ByteBuffer
+          .wrap(Hashing.murmur3_128().hashUnencodedChars(source).asBytes())
+          .order(ByteOrder.LITTLE_ENDIAN);
+
+      TemplateKey key = strategy.keyOf(source);
+
+      assertEquals(expected.getLong(0), key.getHigh(), "high bits of length " + length);
+      assertEquals(expected.getLong(8), key.getLow(), "low bits of length " + length);
+    }
+  }
+
+  @Test
+  @DisplayName("Expect MurmurHash3 strategy used when no algorithm is defined")
+  void expectMurmur3ByDefault() {
+    assertSame(Murmur3TemplateKeyStrategy.INSTANCE, TemplateKeyStrategy.forAlgorithm(null));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"MURMUR3_128", "MD5", "SHA-256"})
+  @DisplayName("Expect equal keys for equal sources and different keys for different sources")
+  void expectKeysDistinguishSources(String algorithm) {
+    TemplateKeyStrategy strategy = TemplateKeyStrategy.forAlgorithm(algorithm);
+
+    assertEquals(strategy.keyOf("{{name}}"), strategy.keyOf(new StringBuilder("{{name}}")));
+    assertNotEquals(strategy.keyOf("{{name}}"), strategy.keyOf("{{name }}"));
+  }
+
+  @Test
+  @DisplayName("Expect MessageDigest keys to equal digest of UTF-16LE bytes")
+  void expectDigestOfUtf16Bytes() throws NoSuchAlgorithmException {
+    String source = randomString(new Random(7), 2000);
+    // raw UTF-16LE code units, so unpaired surrogates are digested as they are
+    ByteBuffer chars = ByteBuffer.allocate(source.length() * 2).order(ByteOrder.LITTLE_ENDIAN);
+    chars.asCharBuffer().put(source);
+    ByteBuffer expected = ByteBuffer.wrap(MessageDigest.getInstance("MD5").digest(chars.array()));
+
+    TemplateKey key = TemplateKeyStrategy.forAlgorithm("MD5").keyOf(source);
+
+    assertEquals(expected.getLong(0), key.getHigh());
+    assertEquals(expected.getLong(8), key.getLow());
+  }
+
+  @Test
+  @DisplayName("Expect IllegalArgumentException when algorithm is not available")
+  void expectUnknownAlgorithmRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> TemplateKeyStrategy.forAlgorithm("NOT-EXISTING"));
+  }
+
+  @Test
+  @DisplayName("Expect MessageDigest strategy to compute stable keys concurrently")
+  void expectDigestStrategyThreadSafe() throws Exception {
+    TemplateKeyStrategy strategy = TemplateKeyStrategy.forAlgorithm("SHA-1");
+    String source = randomString(new Random(1), 5000);
+    TemplateKey expected = strategy.keyOf(source);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      Future<?>[] futures = Stream.generate(() -> executor.submit(() -> {
+        for (int i = 0; i < 200; i++) {
+          assertEquals(expected, strategy.keyOf(source));
+        }
+      })).limit(8).toArray(Future[]::new);
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) random.nextInt(Character.MAX_VALUE));
+    }
+    return builder.toString();
+  }
+}
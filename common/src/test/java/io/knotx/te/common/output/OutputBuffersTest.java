@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.te.common.budget.RenderBudget;
+import io.knotx.te.common.budget.RenderLimitExceededException;
+import java.io.IOException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OutputBuffersTest {
+
+  private final OutputSizeEstimate estimate = new OutputSizeEstimate();
+
+  @Test
+  @DisplayName("Expect consecutive renders on a thread not to see previous output")
+  void expectBufferReused() throws IOException {
+    assertEquals("first output", OutputBuffers.render(estimate, w -> w.write("first output")));
+    assertEquals("second", OutputBuffers.render(estimate, w -> w.append("sec").append("ond")));
+  }
+
+  @Test
+  @DisplayName("Expect nested render on the same thread to get its own buffer")
+  void expectNestedRenderIsolated() throws IOException {
+    String output = OutputBuffers.render(estimate, outer -> {
+      outer.write("<outer>");
+      outer.write(OutputBuffers.render(new OutputSizeEstimate(), inner -> inner.write("inner")));
+      outer.write("</outer>");
+    });
+
+    assertEquals("<outer>inner</outer>", output);
+  }
+
+  @Test
+  @DisplayName("Expect buffer released when rendering fails")
+  void expectBufferReleasedOnFailure() throws IOException {
+    assertThrows(IOException.class, () -> OutputBuffers.render(estimate, w -> {
+      w.write("partial");
+      throw new IOException("failure");
+    }));
+
+    assertEquals("next", OutputBuffers.render(estimate, w -> w.write("next")));
+  }
+
+  @Test
+  @DisplayName("Expect estimate to grow at once and shrink slowly")
+  void expectEstimateAdapts() throws IOException {
+    char[] large = new char[OutputBuffers.MAX_RETAINED_SIZE * 2];
+    OutputBuffers.render(estimate, w -> w.write(large));
+    int grown = estimate.get();
+
+    OutputBuffers.render(estimate, w -> w.write("small"));
+
+    assertTrue(grown > large.length, "estimate " + grown);
+    assertTrue(estimate.get() < grown && estimate.get() > large.length / 2,
+        "estimate " + estimate.get());
+  }
+
+  @Test
+  @DisplayName("Expect render stopped when output exceeds the active render budget")
+  void expectOutputLimitedByBudget() throws IOException {
+    try (RenderBudget.Scope scope = RenderBudget.start().setMaxOutputSize(10).activate()) {
+      assertThrows(RenderLimitExceededException.class, () -> OutputBuffers.render(estimate, w -> {
+        w.write("0123456789");
+        w.append('!');
+      }));
+    }
+
+    assertEquals("0123456789!", OutputBuffers.render(estimate, w -> {
+      w.write("0123456789");
+      w.append('!');
+    }));
+  }
+
+}
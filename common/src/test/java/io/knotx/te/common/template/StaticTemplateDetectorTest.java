@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StaticTemplateDetectorTest {
+
+  @Test
+  @DisplayName("Expect template without any delimiter detected as static")
+  void expectStaticTemplateDetected() {
+    StaticTemplateDetector detector = new StaticTemplateDetector("test", "{{", "{%");
+
+    assertTrue(detector.isStatic("<p>Hello world</p>"));
+    assertTrue(detector.isStatic("{ not an expression }"));
+  }
+
+  @Test
+  @DisplayName("Expect template with any of the delimiters detected as dynamic")
+  void expectDynamicTemplateDetected() {
+    StaticTemplateDetector detector = new StaticTemplateDetector("test", "{{", "{%");
+
+    assertFalse(detector.isStatic("<p>{{name}}</p>"));
+    assertFalse(detector.isStatic("{% if true %}yes{% endif %}"));
+    assertNull(detector.staticTemplateOf("<p>{{name}}</p>"));
+  }
+
+  @Test
+  @DisplayName("Expect every render of a detected static template counted")
+  void expectStaticRendersCounted() throws IOException {
+    StaticTemplateDetector detector = new StaticTemplateDetector("test", "{{");
+    StaticTemplate template = detector.staticTemplateOf("<p>Hello world</p>");
+
+    template.render(new JsonObject());
+    template.render(new JsonObject(), new StringWriter());
+
+    assertEquals(2, detector.getStaticRendersCount());
+  }
+
+  @Test
+  @DisplayName("Expect static template rendered as its source")
+  void expectStaticTemplateRenderedAsSource() throws IOException {
+    StaticTemplate template = new StaticTemplate("<p>Hello world</p>");
+    StringWriter writer = new StringWriter();
+
+    template.render(new JsonObject().put("name", "John"), writer);
+
+    assertEquals("<p>Hello world</p>", template.render(new JsonObject()));
+    assertEquals("<p>Hello world</p>", writer.toString());
+  }
+
+  @Test
+  @DisplayName("Expect static templates counter published when Vert.x metrics are enabled")
+  void expectCounterPublished() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Vertx vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(new MicrometerMetricsOptions()
+        .setEnabled(true)
+        .setMicrometerRegistry(registry)));
+    try {
+      StaticTemplateDetector detector = new StaticTemplateDetector("test", "{{");
+
+      StaticTemplate template = detector.staticTemplateOf("<p>Hello world</p>");
+      template.render(new JsonObject());
+      template.render(new JsonObject());
+
+      assertEquals(2.0, registry.get(TemplateEngineMetrics.STATIC_TEMPLATES)
+          .tag(TemplateEngineMetrics.ENGINE_TAG, "test").functionCounter().count());
+    } finally {
+      vertx.close();
+    }
+  }
+
+}
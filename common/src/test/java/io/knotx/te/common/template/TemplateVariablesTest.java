@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.common.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TemplateVariablesTest {
+
+  private final JsonObject payload = new JsonObject()
+      .put("user", new JsonObject()
+          .put("name", "John")
+          .put("address", new JsonObject().put("city", "Wroclaw").put("street", "Main")))
+      .put("_result", new JsonObject()
+          .put("items", new JsonArray().add(new JsonObject().put("price", 10)))
+          .put("total", 10))
+      .put("unused", "value");
+
+  @Test
+  @DisplayName("Expect only referenced subtrees kept in the pruned payload")
+  void expectReferencedSubtreesKept() {
+    TemplateVariables variables = TemplateVariables.of(Arrays.asList(
+        path("user", "address", "city"), path("_result", "items")));
+
+    JsonObject expected = new JsonObject()
+        .put("user", new JsonObject().put("address", new JsonObject().put("city", "Wroclaw")))
+        .put("_result", new JsonObject()
+            .put("items", new JsonArray().add(new JsonObject().put("price", 10))));
+    assertEquals(expected, variables.prune(payload));
+  }
+
+  @Test
+  @DisplayName("Expect shorter path to reference the whole subtree")
+  void expectShorterPathWins() {
+    TemplateVariables variables = TemplateVariables.of(Arrays.asList(
+        path("user", "name"), path("user")));
+
+    assertEquals(Collections.singleton("user"), variables.getPaths());
+    assertEquals(new JsonObject().put("user", payload.getJsonObject("user")),
+        variables.prune(payload));
+  }
+
+  @Test
+  @DisplayName("Expect values below arrays and missing keys handled")
+  void expectArraysAndMissingKeysHandled() {
+    TemplateVariables variables = TemplateVariables.of(Arrays.asList(
+        path("_result", "items", "0", "price"), path("missing", "key"), path("unused", "length")));
+
+    JsonObject pruned = variables.prune(payload);
+
+    assertEquals(payload.getJsonObject("_result").getJsonArray("items"),
+        pruned.getJsonObject("_result").getJsonArray("items"));
+    assertEquals("value", pruned.getString("unused"));
+    assertFalse(pruned.containsKey("missing"));
+  }
+
+  @Test
+  @DisplayName("Expect payload returned as is when all values are referenced")
+  void expectAllReferenced() {
+    assertSame(payload, TemplateVariables.all().prune(payload));
+    assertTrue(TemplateVariables.of(Collections.singletonList(path())).isAll());
+  }
+
+  private static List<String> path(String... keys) {
+    return Arrays.asList(keys);
+  }
+
+}
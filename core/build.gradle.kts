@@ -29,6 +29,7 @@ dependencies {
   implementation(platform("io.knotx:knotx-dependencies:${project.version}"))
 
   api(project(":knotx-template-engine-api"))
+  implementation(project(":knotx-template-engine-common"))
   api ("io.knotx:knotx-fragments-handler-api:${project.version}")
 
   implementation(group = "io.vertx", name = "vertx-core")
@@ -49,7 +50,7 @@ sourceSets.named("test") {
 
 tasks {
   named<RatTask>("rat") {
-    excludes.addAll(listOf("*.md", "**/build/*", "**/out/*", "**/generated/*", "**/*.adoc", "**/*.txt", "gradle.properties"))
+    excludes.addAll(listOf("*.md", "**/build/*", "**/out/*", "**/generated/*", "**/*.adoc", "**/*.txt", "**/*.json", "gradle.properties"))
   }
   getByName("build").dependsOn("rat")
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.knotx.te.core.exception.RenderOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Limits the number of tasks executed concurrently by the delegate. Tasks above the limit wait in
+ * a bounded queue and are started in arrival order as running tasks complete; when the queue is
+ * full, a task fails immediately with {@link RenderOverloadedException}. Tasks whose subscribers
+ * were disposed while waiting are dropped. The delegate must execute tasks off the calling thread,
+ * otherwise each task completes before the next one is admitted and the limit is never reached.
+ */
+class AdmissionControlRenderExecutor implements RenderExecutor {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(AdmissionControlRenderExecutor.class);
+
+  private final RenderExecutor delegate;
+  private final int maxInFlight;
+  private final int maxPending;
+  private final Queue<PendingTask> pending;
+  private final Counter rejections;
+  private int inFlight;
+
+  AdmissionControlRenderExecutor(RenderExecutor delegate, AdmissionOptions options,
+      String engine) {
+    LOGGER.info("Fragments processing is limited [{}]", options);
+    this.delegate = delegate;
+    this.maxInFlight = options.getMaxInFlight();
+    this.maxPending = options.getMaxPending();
+    this.pending = new ArrayDeque<>();
+    this.rejections = TemplateEngineMetrics.registry()
+        .map(registry -> registry.counter(TemplateEngineMetrics.REJECTIONS,
+            TemplateEngineMetrics.ENGINE_TAG, engine))
+        .orElse(null);
+  }
+
+  @Override
+  public <T> Single<T> execute(Single<T> task) {
+    return Single.create(emitter -> {
+      Runnable start = () -> delegate.execute(task)
+          .doFinally(this::release)
+          .subscribe(emitter::onSuccess, emitter::tryOnError);
+      if (!admit(new PendingTask(emitter, start))) {
+        if (rejections != null) {
+          rejections.increment();
+        }
+        emitter.tryOnError(new RenderOverloadedException(maxInFlight, maxPending));
+      }
+    });
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  private boolean admit(PendingTask task) {
+    synchronized (this) {
+      if (inFlight >= maxInFlight) {
+        return pending.size() < maxPending && pending.add(task);
+      }
+      inFlight++;
+    }
+    task.start.run();
+    return true;
+  }
+
+  private void release() {
+    PendingTask next;
+    synchronized (this) {
+      do {
+        next = pending.poll();
+      } while (next != null && next.emitter.isDisposed());
+      if (next == null) {
+        inFlight--;
+      }
+    }
+    if (next != null) {
+      next.start.run();
+    }
+  }
+
+  private static final class PendingTask {
+
+    private final SingleEmitter<?> emitter;
+    private final Runnable start;
+
+    private PendingTask(SingleEmitter<?> emitter, Runnable start) {
+      this.emitter = emitter;
+      this.start = start;
+    }
+  }
+}
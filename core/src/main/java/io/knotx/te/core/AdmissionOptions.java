@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes limits of fragments processed concurrently by a Knot instance.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class AdmissionOptions {
+
+  public static final int DEFAULT_MAX_IN_FLIGHT = 0;
+  public static final int DEFAULT_MAX_PENDING = 100;
+
+  private int maxInFlight;
+  private int maxPending;
+
+  public AdmissionOptions() {
+    init();
+  }
+
+  public AdmissionOptions(AdmissionOptions other) {
+    this.maxInFlight = other.maxInFlight;
+    this.maxPending = other.maxPending;
+  }
+
+  public AdmissionOptions(JsonObject json) {
+    init();
+    AdmissionOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    AdmissionOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  private void init() {
+    maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    maxPending = DEFAULT_MAX_PENDING;
+  }
+
+  /**
+   * @return max number of fragments processed concurrently, 0 means no limit
+   */
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Sets the maximum number of fragments processed concurrently by a Knot instance. Fragments
+   * above the limit wait in the pending queue. Applies to the {@code WORKER_POOL} and {@code
+   * VIRTUAL_THREAD} execution modes only, as fragments rendered on the event loop are processed one
+   * by one. Default is {@code 0}, which disables admission control.
+   *
+   * @param maxInFlight max number of fragments processed concurrently
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdmissionOptions setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  /**
+   * @return max number of fragments waiting for processing
+   */
+  public int getMaxPending() {
+    return maxPending;
+  }
+
+  /**
+   * Sets the maximum number of fragments waiting until one of the processed fragments completes.
+   * When the queue is full, a fragment is answered immediately with the {@code _overloaded}
+   * transition. Default is {@code 100}.
+   *
+   * @param maxPending max number of fragments waiting for processing
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdmissionOptions setMaxPending(int maxPending) {
+    this.maxPending = maxPending;
+    return this;
+  }
+
+  /**
+   * @return true when the number of fragments processed concurrently is limited
+   */
+  boolean isEnabled() {
+    return maxInFlight > 0;
+  }
+
+  @Override
+  public String toString() {
+    return "AdmissionOptions{" +
+        "maxInFlight=" + maxInFlight +
+        ", maxPending=" + maxPending +
+        '}';
+  }
+}
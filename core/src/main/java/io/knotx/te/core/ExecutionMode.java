@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+/**
+ * Defines where {@link TemplateEngineKnot} compiles and renders templates.
+ */
+public enum ExecutionMode {
+
+  /**
+   * Templates are processed directly on the event loop that received the fragment.
+   */
+  EVENT_LOOP,
+
+  /**
+   * Templates are processed on a dedicated, named worker pool configured with {@link
+   * WorkerPoolOptions}.
+   */
+  WORKER_POOL,
+
+  /**
+   * Each fragment is processed on its own virtual thread (requires JDK 21+), with concurrency
+   * capped by {@link VirtualThreadOptions}.
+   */
+  VIRTUAL_THREAD
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Messages of the batch rendering endpoint. A request is a {@code JsonObject} with the {@value
+ * #CONTEXTS_KEY} array of fragment contexts, and the reply holds the {@value #RESULTS_KEY} array
+ * of fragment results in the same order.
+ */
+public final class FragmentBatch {
+
+  public static final String CONTEXTS_KEY = "contexts";
+  public static final String RESULTS_KEY = "results";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FragmentBatch.class);
+
+  private FragmentBatch() {
+    // utility class
+  }
+
+  /**
+   * @param contexts fragment contexts to process
+   * @return batch request message
+   */
+  public static JsonObject toRequest(List<FragmentContext> contexts) {
+    JsonArray json = new JsonArray();
+    contexts.forEach(context -> json.add(context.toJson()));
+    return new JsonObject().put(CONTEXTS_KEY, json);
+  }
+
+  /**
+   * @param request batch request message
+   * @return fragment contexts to process
+   * @throws IllegalArgumentException when the message has no contexts array
+   */
+  public static List<FragmentContext> contextsOf(JsonObject request) {
+    JsonArray json = request == null ? null : request.getJsonArray(CONTEXTS_KEY);
+    if (json == null) {
+      throw new IllegalArgumentException("Batch request requires '" + CONTEXTS_KEY + "' array");
+    }
+    List<FragmentContext> contexts = new ArrayList<>(json.size());
+    for (int i = 0; i < json.size(); i++) {
+      contexts.add(new FragmentContext(json.getJsonObject(i)));
+    }
+    return contexts;
+  }
+
+  /**
+   * @param results fragment results in the order of the requested contexts
+   * @return batch reply message
+   */
+  public static JsonObject toReply(List<FragmentResult> results) {
+    JsonArray json = new JsonArray();
+    results.forEach(result -> json.add(result.toJson()));
+    return new JsonObject().put(RESULTS_KEY, json);
+  }
+
+  /**
+   * @param reply batch reply message
+   * @return fragment results in the order of the requested contexts
+   */
+  public static List<FragmentResult> resultsOf(JsonObject reply) {
+    JsonArray json = reply.getJsonArray(RESULTS_KEY);
+    List<FragmentResult> results = new ArrayList<>(json.size());
+    for (int i = 0; i < json.size(); i++) {
+      results.add(new FragmentResult(json.getJsonObject(i)));
+    }
+    return results;
+  }
+
+  /**
+   * Subscribes to the processing of all contexts at once, so they are processed in parallel when
+   * the processing runs off the calling thread. A context that fails ends with the {@code _error}
+   * transition, so the other results are still returned.
+   *
+   * @param contexts fragment contexts to process
+   * @param processing processing of a single context
+   * @return fragment results in the order of the contexts
+   */
+  static Single<List<FragmentResult>> process(List<FragmentContext> contexts,
+      Function<FragmentContext, Single<FragmentResult>> processing) {
+    return Observable.fromIterable(contexts)
+        .concatMapEager(context -> processing.apply(context)
+            .onErrorReturn(error -> {
+              LOGGER.error("Processing of batched fragment ends with exception!", error);
+              return new FragmentResult(context.getFragment(), FragmentResult.ERROR_TRANSITION);
+            })
+            .toObservable())
+        .toList();
+  }
+}
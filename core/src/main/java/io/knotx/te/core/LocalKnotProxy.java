@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.fragments.handler.api.Knot;
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+/**
+ * {@link Knot} calling the Template Engine Knot deployed in the same JVM through its {@code
+ * localAddress}. Unlike the service proxy, it passes fragment contexts and results by reference,
+ * without serializing them to JSON and copying. The Knot renders a read-only view of the sent
+ * payload and never modifies the sent context. The payload must not be modified until the reply,
+ * whose fragment shares it with the sent one.
+ */
+public class LocalKnotProxy implements Knot {
+
+  private final Vertx vertx;
+  private final String address;
+  private final DeliveryOptions deliveryOptions;
+
+  /**
+   * @param vertx Vert.x instance the Knot is deployed in
+   * @param address the Knot's {@code localAddress}
+   */
+  public LocalKnotProxy(Vertx vertx, String address) {
+    this(vertx, address, new DeliveryOptions());
+  }
+
+  /**
+   * @param vertx Vert.x instance the Knot is deployed in
+   * @param address the Knot's {@code localAddress}
+   * @param deliveryOptions options of sent messages, e.g. the send timeout
+   */
+  public LocalKnotProxy(Vertx vertx, String address, DeliveryOptions deliveryOptions) {
+    LocalMessageCodec.registerIfAbsent(vertx.eventBus());
+    this.vertx = vertx;
+    this.address = address;
+    this.deliveryOptions = new DeliveryOptions(deliveryOptions)
+        .setCodecName(LocalMessageCodec.FRAGMENT_CONTEXT);
+  }
+
+  @Override
+  public void apply(FragmentContext fragmentContext, Handler<AsyncResult<FragmentResult>> result) {
+    vertx.eventBus().<FragmentResult>request(address, fragmentContext, deliveryOptions,
+        reply -> {
+          if (reply.succeeded()) {
+            Future.succeededFuture(reply.result().body()).setHandler(result);
+          } else {
+            Future.<FragmentResult>failedFuture(reply.cause()).setHandler(result);
+          }
+        });
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Event bus codec passing message references to consumers in the same JVM, so fragment contexts
+ * and results are neither serialized nor copied. Messages sent to other cluster nodes are encoded
+ * as JSON, the same way the service proxy does.
+ *
+ * @param <T> message type
+ */
+final class LocalMessageCodec<T> implements MessageCodec<T, T> {
+
+  static final String FRAGMENT_CONTEXT = "knotx.te.local.FragmentContext";
+  static final String FRAGMENT_RESULT = "knotx.te.local.FragmentResult";
+
+  private static final Set<EventBus> REGISTERED =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  private final String name;
+  private final Function<T, JsonObject> toJson;
+  private final Function<JsonObject, T> fromJson;
+
+  private LocalMessageCodec(String name, Function<T, JsonObject> toJson,
+      Function<JsonObject, T> fromJson) {
+    this.name = name;
+    this.toJson = toJson;
+    this.fromJson = fromJson;
+  }
+
+  static LocalMessageCodec<FragmentContext> fragmentContext() {
+    return new LocalMessageCodec<>(FRAGMENT_CONTEXT, FragmentContext::toJson,
+        FragmentContext::new);
+  }
+
+  static LocalMessageCodec<FragmentResult> fragmentResult() {
+    return new LocalMessageCodec<>(FRAGMENT_RESULT, FragmentResult::toJson, FragmentResult::new);
+  }
+
+  /**
+   * Registers the {@link #FRAGMENT_CONTEXT} and {@link #FRAGMENT_RESULT} codecs, unless they are
+   * already registered by another Knot or proxy sharing the event bus.
+   *
+   * @param eventBus event bus
+   * @throws IllegalStateException when another codec is registered with the same name
+   */
+  static synchronized void registerIfAbsent(EventBus eventBus) {
+    if (!REGISTERED.contains(eventBus)) {
+      eventBus.registerCodec(fragmentContext());
+      eventBus.registerCodec(fragmentResult());
+      REGISTERED.add(eventBus);
+    }
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, T message) {
+    Buffer encoded = toJson.apply(message).toBuffer();
+    buffer.appendInt(encoded.length());
+    buffer.appendBuffer(encoded);
+  }
+
+  @Override
+  public T decodeFromWire(int pos, Buffer buffer) {
+    int length = buffer.getInt(pos);
+    int start = pos + Integer.BYTES;
+    return fromJson.apply(new JsonObject(buffer.slice(start, start + length)));
+  }
+
+  @Override
+  public T transform(T message) {
+    return message;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
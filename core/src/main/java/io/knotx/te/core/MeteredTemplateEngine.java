@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.reactivex.Single;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a {@link TemplateEngine} with processing time, output size and failure meters.
+ */
+class MeteredTemplateEngine implements TemplateEngine {
+
+  private final TemplateEngine delegate;
+  private final Timer renderTimer;
+  private final DistributionSummary outputSize;
+  private final Counter failures;
+
+  MeteredTemplateEngine(TemplateEngine delegate, MeterRegistry registry, String engine) {
+    Tags tags = Tags.of(TemplateEngineMetrics.ENGINE_TAG, engine);
+    this.delegate = delegate;
+    this.renderTimer = registry.timer(TemplateEngineMetrics.RENDER_TIMER, tags);
+    this.outputSize = DistributionSummary.builder(TemplateEngineMetrics.OUTPUT_SIZE)
+        .baseUnit("characters")
+        .tags(tags)
+        .register(registry);
+    this.failures = registry.counter(TemplateEngineMetrics.FAILURES, tags);
+  }
+
+  @Override
+  public String process(Fragment fragment) {
+    long start = System.nanoTime();
+    try {
+      String output = delegate.process(fragment);
+      recordSuccess(start, output);
+      return output;
+    } catch (RuntimeException e) {
+      failures.increment();
+      throw e;
+    }
+  }
+
+  @Override
+  public Single<String> processAsync(Fragment fragment) {
+    return Single.defer(() -> {
+      long start = System.nanoTime();
+      return delegate.processAsync(fragment)
+          .doOnSuccess(output -> recordSuccess(start, output))
+          .doOnError(error -> failures.increment());
+    });
+  }
+
+  @Override
+  public void process(Fragment fragment, Writer writer) throws IOException {
+    long start = System.nanoTime();
+    try {
+      delegate.process(fragment, writer);
+      renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    } catch (IOException | RuntimeException e) {
+      failures.increment();
+      throw e;
+    }
+  }
+
+  @Override
+  public CompiledTemplate compile(String body) {
+    return delegate.compile(body);
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  private void recordSuccess(long start, String output) {
+    renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    outputSize.record(output.length());
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.te.common.cache.TemplateKeyStrategy;
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes the rendered output cache. When enabled, fragments with the same body and payload are
+ * rendered once and the output is reused until it expires.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class OutputCacheOptions {
+
+  public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+  public static final long DEFAULT_TIME_TO_LIVE = 60_000L;
+
+  private boolean enabled;
+  private long maximumSize;
+  private long timeToLive;
+  private String keyAlgorithm;
+  private boolean keyVerification;
+
+  public OutputCacheOptions() {
+    init();
+  }
+
+  public OutputCacheOptions(OutputCacheOptions other) {
+    this.enabled = other.enabled;
+    this.maximumSize = other.maximumSize;
+    this.timeToLive = other.timeToLive;
+    this.keyAlgorithm = other.keyAlgorithm;
+    this.keyVerification = other.keyVerification;
+  }
+
+  public OutputCacheOptions(JsonObject json) {
+    init();
+    OutputCacheOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    OutputCacheOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  private void init() {
+    enabled = false;
+    maximumSize = DEFAULT_MAXIMUM_SIZE;
+    timeToLive = DEFAULT_TIME_TO_LIVE;
+    keyAlgorithm = TemplateKeyStrategy.MURMUR3_128;
+    keyVerification = true;
+  }
+
+  /**
+   * @return flag indicating whether rendered output is cached
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets whether rendered output is cached. Enable it only when the output depends on the fragment
+   * body and payload alone. Default is {@code false}.
+   *
+   * @param enabled flag indicating whether rendered output is cached
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutputCacheOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  /**
+   * @return maximum number of cached outputs
+   */
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Sets the maximum number of cached outputs. Default is {@code 10000}.
+   *
+   * @param maximumSize maximum number of cached outputs
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutputCacheOptions setMaximumSize(long maximumSize) {
+    this.maximumSize = maximumSize;
+    return this;
+  }
+
+  /**
+   * @return time to live in milliseconds
+   */
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  /**
+   * Sets the time (in milliseconds) after which a cached output is rendered again. Default is
+   * {@code 60000}.
+   *
+   * @param timeToLive time to live in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutputCacheOptions setTimeToLive(long timeToLive) {
+    this.timeToLive = timeToLive;
+    return this;
+  }
+
+  /**
+   * @return name of the algorithm used to compute cache keys
+   */
+  public String getKeyAlgorithm() {
+    return keyAlgorithm;
+  }
+
+  /**
+   * Sets the algorithm used to compute hashes of the payload. Default is {@code MURMUR3_128}. Set a
+   * cryptographic hash (such as {@code SHA-256}) when key verification is disabled and payloads
+   * contain untrusted input, so crafted collisions can not serve output rendered for another
+   * payload.
+   *
+   * @param keyAlgorithm algorithm name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutputCacheOptions setKeyAlgorithm(String keyAlgorithm) {
+    this.keyAlgorithm = keyAlgorithm;
+    return this;
+  }
+
+  /**
+   * @return flag indicating whether the payload of a cached output is compared with the rendered one
+   */
+  public boolean isKeyVerification() {
+    return keyVerification;
+  }
+
+  /**
+   * Sets whether the encoded payload is kept with the cached output and compared with the rendered
+   * one on hit, so a hash collision renders the fragment again instead of serving output rendered
+   * for another payload. It costs the memory of the encoded payload per cached output. Default is
+   * {@code true}.
+   *
+   * @param keyVerification flag indicating whether the payload of a cached output is compared
+   * with the rendered one
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OutputCacheOptions setKeyVerification(boolean keyVerification) {
+    this.keyVerification = keyVerification;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "OutputCacheOptions{" +
+        "enabled=" + enabled +
+        ", maximumSize=" + maximumSize +
+        ", timeToLive=" + timeToLive +
+        ", keyAlgorithm='" + keyAlgorithm + '\'' +
+        ", keyVerification=" + keyVerification +
+        '}';
+  }
+}
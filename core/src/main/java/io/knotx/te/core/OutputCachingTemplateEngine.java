@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.api.exception.TemplateCompilationException;
+import io.knotx.te.common.cache.TemplateKey;
+import io.knotx.te.common.cache.TemplateKeyStrategy;
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a {@link TemplateEngine} with a cache of rendered outputs. Outputs are identified by the
+ * compiled template and a hash of the encoded payload, so a cache hit skips rendering altogether.
+ * The compiled template is the one cached by the engine, so the fragment body is looked up once
+ * and not hashed again. The payload is first narrowed with {@link
+ * CompiledTemplate#prune(JsonObject)}, so values the template does not reference are neither
+ * encoded nor hashed and do not split the cache. With key verification, the encoded payload is kept
+ * with the output and compared on hit, so a hash collision can not serve output rendered for
+ * another payload.
+ */
+class OutputCachingTemplateEngine implements TemplateEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutputCachingTemplateEngine.class);
+
+  private final TemplateEngine delegate;
+  private final TemplateKeyStrategy keyStrategy;
+  private final boolean keyVerification;
+  private final Cache<OutputKey, Output> cache;
+  private final MeterRegistry registry;
+  private final Tags instanceTags;
+
+  OutputCachingTemplateEngine(TemplateEngine delegate, OutputCacheOptions options, String engine) {
+    this(delegate, options, TemplateKeyStrategy.forAlgorithm(options.getKeyAlgorithm()), engine);
+  }
+
+  OutputCachingTemplateEngine(TemplateEngine delegate, OutputCacheOptions options,
+      TemplateKeyStrategy keyStrategy, String engine) {
+    this.delegate = delegate;
+    this.keyStrategy = keyStrategy;
+    this.keyVerification = options.isKeyVerification();
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(options.getMaximumSize())
+        .expireAfterWrite(options.getTimeToLive(), TimeUnit.MILLISECONDS)
+        .recordStats()
+        .build();
+    this.registry = TemplateEngineMetrics.registry().orElse(null);
+    this.instanceTags = TemplateEngineMetrics.instanceTags(engine);
+    if (registry != null) {
+      CaffeineCacheMetrics.monitor(registry, cache, TemplateEngineMetrics.OUTPUT_CACHE,
+          instanceTags);
+    }
+  }
+
+  @Override
+  public String process(Fragment fragment) {
+    OutputKey key = keyOf(fragment);
+    if (key == null) {
+      return delegate.process(fragment);
+    }
+    String output = cached(key);
+    if (output == null) {
+      output = delegate.process(fragment);
+      cache.put(key, new Output(key.payloadSource, output));
+    }
+    return output;
+  }
+
+  @Override
+  public Single<String> processAsync(Fragment fragment) {
+    return Single.defer(() -> {
+      OutputKey key = keyOf(fragment);
+      if (key == null) {
+        return delegate.processAsync(fragment);
+      }
+      String output = cached(key);
+      if (output != null) {
+        return Single.just(output);
+      }
+      return delegate.processAsync(fragment)
+          .doOnSuccess(rendered -> cache.put(key, new Output(key.payloadSource, rendered)));
+    });
+  }
+
+  @Override
+  public void process(Fragment fragment, Writer writer) throws IOException {
+    writer.write(process(fragment));
+  }
+
+  @Override
+  public CompiledTemplate compile(String body) {
+    return delegate.compile(body);
+  }
+
+  /**
+   * Removes the output cache meters and closes the delegate.
+   */
+  @Override
+  public void close() {
+    if (registry != null) {
+      TemplateEngineMetrics.removeMeters(registry, instanceTags);
+    }
+    delegate.close();
+  }
+
+  CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * @return the output key, or {@code null} when the template does not compile, so the failure is
+   * reported by the delegate
+   */
+  private OutputKey keyOf(Fragment fragment) {
+    CompiledTemplate template;
+    try {
+      template = delegate.compile(fragment.getBody());
+    } catch (TemplateCompilationException e) {
+      return null;
+    }
+    String payload = template.prune(fragment.getPayload()).encode();
+    return new OutputKey(template, keyStrategy.keyOf(payload),
+        keyVerification ? payload : null);
+  }
+
+  private String cached(OutputKey key) {
+    Output output = cache.getIfPresent(key);
+    if (output == null) {
+      return null;
+    }
+    if (key.payloadSource != null && !key.payloadSource.equals(output.payloadSource)) {
+      LOGGER.warn("Output cache key collision detected, rendering fragment again");
+      return null;
+    }
+    return output.markup;
+  }
+
+  private static final class Output {
+
+    private final String payloadSource;
+    private final String markup;
+
+    private Output(String payloadSource, String markup) {
+      this.payloadSource = payloadSource;
+      this.markup = markup;
+    }
+  }
+
+  private static final class OutputKey {
+
+    private final CompiledTemplate template;
+    private final TemplateKey payload;
+    private final String payloadSource;
+
+    private OutputKey(CompiledTemplate template, TemplateKey payload, String payloadSource) {
+      this.template = template;
+      this.payload = payload;
+      this.payloadSource = payloadSource;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      OutputKey that = (OutputKey) o;
+      return template.equals(that.template) && payload.equals(that.payload);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * template.hashCode() + payload.hashCode();
+    }
+  }
+
+}
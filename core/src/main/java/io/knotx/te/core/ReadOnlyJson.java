@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only views of JSON objects, letting the renderer read a payload owned by the caller without
+ * copying it. Nested objects and arrays are wrapped lazily when read, so any modification throws
+ * {@link UnsupportedOperationException}, while changes made by the owner remain visible.
+ */
+final class ReadOnlyJson {
+
+  private ReadOnlyJson() {
+    // utility class
+  }
+
+  /**
+   * @param json JSON object, may be {@code null}
+   * @return read-only view of the object, {@code null} when the object is {@code null}
+   */
+  static JsonObject view(JsonObject json) {
+    return json == null ? null : new JsonObject(new ReadOnlyMap(json.getMap()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object wrap(Object value) {
+    if (value instanceof JsonObject) {
+      return view((JsonObject) value);
+    } else if (value instanceof Map) {
+      return new ReadOnlyMap((Map<String, Object>) value);
+    } else if (value instanceof JsonArray) {
+      return new JsonArray(new ReadOnlyList(((JsonArray) value).getList()));
+    } else if (value instanceof List) {
+      return new ReadOnlyList((List<Object>) value);
+    }
+    return value;
+  }
+
+  private static final class ReadOnlyMap extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> delegate;
+
+    private ReadOnlyMap(Map<String, Object> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Object get(Object key) {
+      return wrap(delegate.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return delegate.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return delegate.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<Entry<String, Object>>() {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          Iterator<Entry<String, Object>> entries = delegate.entrySet().iterator();
+          return new Iterator<Entry<String, Object>>() {
+            @Override
+            public boolean hasNext() {
+              return entries.hasNext();
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              Entry<String, Object> entry = entries.next();
+              return new SimpleImmutableEntry<>(entry.getKey(), wrap(entry.getValue()));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return delegate.size();
+        }
+      };
+    }
+  }
+
+  private static final class ReadOnlyList extends AbstractList<Object> {
+
+    private final List<Object> delegate;
+
+    private ReadOnlyList(List<Object> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Object get(int index) {
+      return wrap(delegate.get(index));
+    }
+
+    @Override
+    public int size() {
+      return delegate.size();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.reactivex.Single;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+
+/**
+ * Decides on which threads {@link TemplateEngineKnot} processes templates.
+ */
+interface RenderExecutor {
+
+  static RenderExecutor create(Vertx vertx, TemplateEngineKnotOptions options) {
+    RenderExecutor executor = forExecutionMode(vertx, options);
+    if (!options.getAdmission().isEnabled()) {
+      return executor;
+    }
+    if (options.getExecutionMode() == ExecutionMode.EVENT_LOOP) {
+      // fragments rendered on the event loop complete one by one, so the limit is never reached
+      LoggerFactory.getLogger(RenderExecutor.class).warn("Admission control is ignored in "
+          + "EVENT_LOOP execution mode, use WORKER_POOL or VIRTUAL_THREAD to limit fragments");
+      return executor;
+    }
+    return new AdmissionControlRenderExecutor(executor, options.getAdmission(),
+        options.getEngine().getFactory());
+  }
+
+  static RenderExecutor forExecutionMode(Vertx vertx, TemplateEngineKnotOptions options) {
+    switch (options.getExecutionMode()) {
+      case WORKER_POOL:
+        return new WorkerPoolRenderExecutor(vertx, options.getWorkerPool());
+      case VIRTUAL_THREAD:
+        return new VirtualThreadRenderExecutor(vertx, options.getVirtualThreads());
+      case EVENT_LOOP:
+      default:
+        return new EventLoopRenderExecutor();
+    }
+  }
+
+  /**
+   * Subscribes to the processing task according to the execution strategy. The result is emitted
+   * on the context of the caller.
+   *
+   * @param task processing task
+   * @param <T> task result type
+   * @return single emitting the task result
+   */
+  <T> Single<T> execute(Single<T> task);
+
+  /**
+   * Releases resources held by the executor.
+   */
+  void close();
+
+}
@@ -28,6 +28,7 @@ public class TemplateEngineEntry {
 
   private String factory;
   private JsonObject config;
+  private boolean shared;
 
   /**
    * Create settings from JSON
@@ -44,6 +45,7 @@ public class TemplateEngineEntry {
 
   private void init() {
     this.config = new JsonObject();
+    this.shared = false;
   }
 
   /**
@@ -84,11 +86,33 @@ public class TemplateEngineEntry {
     return this;
   }
 
+  /**
+   * @return flag indicating whether the engine is shared by Knot instances
+   */
+  public boolean isShared() {
+    return shared;
+  }
+
+  /**
+   * Sets whether a single engine instance (together with its compiled templates cache) is shared by
+   * all Knot instances deployed with the same factory name and configuration. The shared engine
+   * renders fragments on many event loops at once, so enable it only for thread-safe engines, such
+   * as {@code handlebars} and {@code pebble}. Default is {@code false}.
+   *
+   * @param shared flag indicating whether the engine is shared by Knot instances
+   * @return reference to this, so the API can be used fluently
+   */
+  public TemplateEngineEntry setShared(boolean shared) {
+    this.shared = shared;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "TemplateEngineEntry{" +
         "factory='" + factory + '\'' +
         ", config=" + config +
+        ", shared=" + shared +
         '}';
   }
 }
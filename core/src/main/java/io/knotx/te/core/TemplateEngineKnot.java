@@ -20,37 +20,63 @@ import io.knotx.fragments.handler.api.Knot;
 import io.knotx.fragments.handler.api.domain.FragmentContext;
 import io.knotx.fragments.handler.api.domain.FragmentResult;
 import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.common.budget.RenderBudget;
+import io.knotx.te.common.budget.RenderTimeoutException;
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.knotx.te.core.exception.RenderOverloadedException;
+import io.reactivex.Completable;
 import io.reactivex.Single;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.AbstractVerticle;
 import io.vertx.serviceproxy.ServiceBinder;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class TemplateEngineKnot extends AbstractVerticle implements Knot {
 
+  /**
+   * Transition of fragments rejected because the Knot processes too many fragments.
+   */
+  public static final String OVERLOADED_TRANSITION = "_overloaded";
+
+  /**
+   * Transition of fragments whose rendering exceeded the render timeout.
+   */
+  public static final String TIMEOUT_TRANSITION = "_timeout";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(TemplateEngineKnot.class);
 
+  private static final int INVALID_BATCH_FAILURE_CODE = 400;
+  private static final int BATCH_FAILURE_CODE = 500;
+  private static final int LOCAL_FAILURE_CODE = 500;
+  private static final DeliveryOptions LOCAL_REPLY_OPTIONS = new DeliveryOptions()
+      .setCodecName(LocalMessageCodec.FRAGMENT_RESULT);
+
   private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<JsonObject> batchConsumer;
+  private MessageConsumer<FragmentContext> localConsumer;
   private ServiceBinder serviceBinder;
 
   private TemplateEngineKnotOptions options;
+  private TemplateEngineRegistry engineRegistry;
   private TemplateEngine templateEngine;
+  private RenderExecutor renderExecutor;
 
   @Override
   public void apply(io.knotx.fragments.handler.api.domain.FragmentContext fragmentContext,
       Handler<AsyncResult<FragmentResult>> result) {
-    Single.just(fragmentContext)
-        .map(FragmentContext::getFragment)
-        .doOnSuccess(this::traceFragment)
-        .map(this::processFragment)
-        .map(this::handleSuccessProcessing)
+    process(fragmentContext)
         .subscribe(
             fragmentResult -> {
               LOGGER.debug("Processing ends with result [{}]", fragmentResult);
@@ -71,32 +97,204 @@ public class TemplateEngineKnot extends AbstractVerticle implements Knot {
   }
 
   @Override
-  public void start() {
+  public Completable rxStart() {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
-    //register the service proxy on event bus
     serviceBinder = new ServiceBinder(getVertx());
-    templateEngine = new TemplateEngineProvider(vertx).loadTemplateEngine(options.getEngine());
+    engineRegistry = new TemplateEngineRegistry(vertx);
+    if (options.getBatchAddress() != null
+        && options.getExecutionMode() == ExecutionMode.EVENT_LOOP) {
+      throw new IllegalStateException("Batch rendering requires WORKER_POOL or VIRTUAL_THREAD "
+          + "execution mode, the event loop would render the batch fragments one after another");
+    }
+    // a misconfigured executor fails the start before the engine is acquired
+    renderExecutor = RenderExecutor.create(vertx, options);
+    try {
+      templateEngine = loadTemplateEngine(options.getEngine());
+    } catch (RuntimeException e) {
+      renderExecutor.close();
+      throw e;
+    }
 
-    consumer = serviceBinder.setAddress(options.getAddress()).register(Knot.class, this);
+    //register the service proxy on event bus when templates are warmed up
+    return Completable
+        .defer(() -> new TemplateWarmup(vertx, templateEngine, options.getWarmup()).run())
+        .doOnComplete(() -> {
+          consumer = serviceBinder.setAddress(options.getAddress()).register(Knot.class, this);
+          if (options.getBatchAddress() != null) {
+            batchConsumer = getVertx().eventBus()
+                .consumer(options.getBatchAddress(), this::processBatch);
+          }
+          if (options.getLocalAddress() != null) {
+            LocalMessageCodec.registerIfAbsent(getVertx().eventBus());
+            localConsumer = getVertx().eventBus()
+                .localConsumer(options.getLocalAddress(), this::processLocal);
+          }
+        })
+        .doOnError(error -> {
+          renderExecutor.close();
+          releaseTemplateEngine();
+        });
   }
 
   @Override
   public void stop() {
     serviceBinder.unregister(consumer);
+    if (batchConsumer != null) {
+      batchConsumer.unregister();
+    }
+    if (localConsumer != null) {
+      localConsumer.unregister();
+    }
+    renderExecutor.close();
+    if (templateEngine instanceof OutputCachingTemplateEngine) {
+      LOGGER.info("Output cache statistics: {}",
+          ((OutputCachingTemplateEngine) templateEngine).stats());
+    }
+    releaseTemplateEngine();
+  }
+
+  private Single<FragmentResult> process(FragmentContext fragmentContext) {
+    return process(fragmentContext, Function.identity(), Fragment::setBody);
+  }
+
+  private Single<FragmentResult> process(FragmentContext fragmentContext,
+      Function<Fragment, Fragment> toRendered, BiFunction<Fragment, String, Fragment> withBody) {
+    return Single.just(fragmentContext)
+        .map(FragmentContext::getFragment)
+        .doOnSuccess(this::traceFragment)
+        .flatMap(fragment -> processFragment(toRendered.apply(fragment))
+            .map(body -> withBody.apply(fragment, body))
+            .map(this::handleSuccessProcessing)
+            .onErrorResumeNext(error -> handleRejection(fragment, error)));
+  }
+
+  private void processLocal(Message<FragmentContext> message) {
+    // the context is owned by the sender, so it is rendered read-only and the result is a copy
+    process(message.body(), TemplateEngineKnot::readOnlyView, TemplateEngineKnot::copyWithBody)
+        .subscribe(
+            result -> message.reply(result, LOCAL_REPLY_OPTIONS),
+            error -> {
+              LOGGER.error("Processing ends with exception!", error);
+              message.fail(LOCAL_FAILURE_CODE, error.getMessage());
+            });
+  }
+
+  private void processBatch(Message<JsonObject> message) {
+    List<FragmentContext> contexts;
+    try {
+      contexts = FragmentBatch.contextsOf(message.body());
+    } catch (RuntimeException e) {
+      LOGGER.error("Invalid batch request", e);
+      message.fail(INVALID_BATCH_FAILURE_CODE, e.getMessage());
+      return;
+    }
+    // the render executor dispatches the contexts off the event loop, so they render in parallel
+    FragmentBatch.process(contexts, this::process)
+        .subscribe(
+            results -> message.reply(FragmentBatch.toReply(results)),
+            error -> {
+              LOGGER.error("Batch processing ends with exception!", error);
+              message.fail(BATCH_FAILURE_CODE, error.getMessage());
+            });
+  }
+
+  private TemplateEngine loadTemplateEngine(TemplateEngineEntry engine) {
+    TemplateEngineProvider provider = new TemplateEngineProvider(vertx);
+    if (engine.isShared()) {
+      return engineRegistry.acquire(engine, options.getOutputCache(),
+          () -> decorate(provider.loadTemplateEngine(engine)));
+    }
+    return decorate(provider.loadTemplateEngine(engine));
+  }
+
+  private void releaseTemplateEngine() {
+    if (options.getEngine().isShared()) {
+      engineRegistry.release(options.getEngine(), options.getOutputCache());
+    } else {
+      templateEngine.close();
+    }
+  }
+
+  private TemplateEngine decorate(TemplateEngine engine) {
+    String factory = options.getEngine().getFactory();
+    TemplateEngine decorated = TemplateEngineMetrics.registry()
+        .<TemplateEngine>map(registry -> new MeteredTemplateEngine(engine, registry, factory))
+        .orElse(engine);
+    if (options.getOutputCache().isEnabled()) {
+      decorated = new OutputCachingTemplateEngine(decorated, options.getOutputCache(), factory);
+    }
+    return decorated;
   }
 
   private FragmentResult handleSuccessProcessing(Fragment fragment) {
     return new FragmentResult(fragment, FragmentResult.SUCCESS_TRANSITION);
   }
 
+  private Single<FragmentResult> handleRejection(Fragment fragment, Throwable error) {
+    if (error instanceof RenderOverloadedException) {
+      LOGGER.warn("Fragment [{}] rejected: {}", fragment.getId(), error.getMessage());
+      return Single.just(new FragmentResult(fragment, OVERLOADED_TRANSITION));
+    }
+    // engines wrap exceptions thrown while rendering
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof RenderTimeoutException) {
+        LOGGER.warn("Fragment [{}] rendering stopped: {}", fragment.getId(), cause.getMessage());
+        return Single.just(new FragmentResult(fragment, TIMEOUT_TRANSITION));
+      }
+    }
+    return Single.error(error);
+  }
+
   private void traceFragment(Fragment fragment) {
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("Processing fragment {}", fragment.toJson().encodePrettily());
     }
   }
 
-  private Fragment processFragment(Fragment fragment) {
-    return fragment.setBody(templateEngine.process(fragment));
+  private Single<String> processFragment(Fragment fragment) {
+    return renderExecutor.execute(Single.defer(() -> render(fragment)));
+  }
+
+  private static Fragment readOnlyView(Fragment fragment) {
+    return new Fragment(new JsonObject()
+        .put("id", fragment.getId())
+        .put("type", fragment.getType())
+        .put("configuration", ReadOnlyJson.view(fragment.getConfiguration()))
+        .put("body", fragment.getBody())
+        .put("payload", ReadOnlyJson.view(fragment.getPayload())));
+  }
+
+  private static Fragment copyWithBody(Fragment fragment, String body) {
+    return new Fragment(new JsonObject()
+        .put("id", fragment.getId())
+        .put("type", fragment.getType())
+        .put("configuration", fragment.getConfiguration())
+        .put("body", body)
+        .put("payload", fragment.getPayload()));
+  }
+
+  private Single<String> render(Fragment fragment) {
+    Single<String> processing = templateEngine.processAsync(fragment);
+    if (options.getRenderTimeout() <= 0 && options.getMaxOutputSize() <= 0
+        && options.getMaxIterations() <= 0) {
+      return processing;
+    }
+    // the budget is checked by engines rendering on the subscribing thread
+    return Single.create(emitter -> {
+      try (RenderBudget.Scope scope = renderBudget().activate()) {
+        processing.subscribe(emitter::onSuccess, emitter::tryOnError);
+      }
+    });
+  }
+
+  private RenderBudget renderBudget() {
+    RenderBudget budget = RenderBudget.start()
+        .setMaxOutputSize(options.getMaxOutputSize())
+        .setMaxIterations(options.getMaxIterations());
+    if (options.getRenderTimeout() > 0) {
+      budget.setTimeout(options.getRenderTimeout());
+    }
+    return budget;
   }
 }
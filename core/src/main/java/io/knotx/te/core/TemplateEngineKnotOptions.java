@@ -25,9 +25,23 @@ import io.vertx.core.json.JsonObject;
 public class TemplateEngineKnotOptions {
 
   public final static String DEFAULT_EB_ADDRESS = "knotx.knot.te";
+  public final static long DEFAULT_RENDER_TIMEOUT = 0L;
+  public final static long DEFAULT_MAX_OUTPUT_SIZE = 0L;
+  public final static long DEFAULT_MAX_ITERATIONS = 0L;
 
   private String address;
+  private String batchAddress;
+  private String localAddress;
   private TemplateEngineEntry engine;
+  private ExecutionMode executionMode;
+  private WorkerPoolOptions workerPool;
+  private VirtualThreadOptions virtualThreads;
+  private AdmissionOptions admission;
+  private long renderTimeout;
+  private long maxOutputSize;
+  private long maxIterations;
+  private OutputCacheOptions outputCache;
+  private WarmupOptions warmup;
 
   public TemplateEngineKnotOptions() {
     init();
@@ -35,7 +49,18 @@ public class TemplateEngineKnotOptions {
 
   public TemplateEngineKnotOptions(TemplateEngineKnotOptions other) {
     this.address = other.address;
+    this.batchAddress = other.batchAddress;
+    this.localAddress = other.localAddress;
     this.engine = other.engine;
+    this.executionMode = other.executionMode;
+    this.workerPool = new WorkerPoolOptions(other.workerPool);
+    this.virtualThreads = new VirtualThreadOptions(other.virtualThreads);
+    this.admission = new AdmissionOptions(other.admission);
+    this.renderTimeout = other.renderTimeout;
+    this.maxOutputSize = other.maxOutputSize;
+    this.maxIterations = other.maxIterations;
+    this.outputCache = new OutputCacheOptions(other.outputCache);
+    this.warmup = new WarmupOptions(other.warmup);
   }
 
   public TemplateEngineKnotOptions(JsonObject json) {
@@ -51,6 +76,15 @@ public class TemplateEngineKnotOptions {
 
   private void init() {
     address = DEFAULT_EB_ADDRESS;
+    executionMode = ExecutionMode.EVENT_LOOP;
+    workerPool = new WorkerPoolOptions();
+    virtualThreads = new VirtualThreadOptions();
+    admission = new AdmissionOptions();
+    renderTimeout = DEFAULT_RENDER_TIMEOUT;
+    maxOutputSize = DEFAULT_MAX_OUTPUT_SIZE;
+    maxIterations = DEFAULT_MAX_ITERATIONS;
+    outputCache = new OutputCacheOptions();
+    warmup = new WarmupOptions();
   }
 
   /**
@@ -71,6 +105,47 @@ public class TemplateEngineKnotOptions {
     return this;
   }
 
+  /**
+   * @return EB address of the batch rendering endpoint
+   */
+  public String getBatchAddress() {
+    return batchAddress;
+  }
+
+  /**
+   * Sets the EB address consuming batches of fragments, see {@link FragmentBatch}. All fragment
+   * contexts of a batch are processed in parallel and answered with a single reply. Requires the
+   * {@code WORKER_POOL} or {@code VIRTUAL_THREAD} execution mode, the Knot fails to start with the
+   * {@code EVENT_LOOP} one. Not set by default, which disables the batch endpoint.
+   *
+   * @param batchAddress EB address of the batch rendering endpoint
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setBatchAddress(String batchAddress) {
+    this.batchAddress = batchAddress;
+    return this;
+  }
+
+  /**
+   * @return local EB address consuming fragment contexts by reference
+   */
+  public String getLocalAddress() {
+    return localAddress;
+  }
+
+  /**
+   * Sets the local EB address for callers deployed in the same JVM, see {@link LocalKnotProxy}.
+   * Fragment contexts and results are passed by reference instead of being serialized to JSON and
+   * copied by the event bus. Not set by default, which disables the local endpoint.
+   *
+   * @param localAddress local EB address
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setLocalAddress(String localAddress) {
+    this.localAddress = localAddress;
+    return this;
+  }
+
   /**
    * @return template engine strategy
    */
@@ -89,4 +164,181 @@ public class TemplateEngineKnotOptions {
     this.engine = engine;
     return this;
   }
+
+  /**
+   * @return execution mode of templates processing
+   */
+  public ExecutionMode getExecutionMode() {
+    return executionMode;
+  }
+
+  /**
+   * Sets where templates are compiled and rendered. Default is {@code EVENT_LOOP}. When set to
+   * {@code WORKER_POOL}, processing is offloaded to the worker pool configured with {@code
+   * workerPool}, so heavy templates do not block the event loop. When set to {@code
+   * VIRTUAL_THREAD}, each fragment is processed on its own virtual thread (requires JDK 21+) with
+   * concurrency limited by {@code virtualThreads}.
+   *
+   * @param executionMode execution mode
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setExecutionMode(ExecutionMode executionMode) {
+    this.executionMode = executionMode;
+    return this;
+  }
+
+  /**
+   * @return worker pool options
+   */
+  public WorkerPoolOptions getWorkerPool() {
+    return workerPool;
+  }
+
+  /**
+   * Sets the worker pool used when execution mode is {@code WORKER_POOL}.
+   *
+   * @param workerPool worker pool options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setWorkerPool(WorkerPoolOptions workerPool) {
+    this.workerPool = workerPool;
+    return this;
+  }
+
+  /**
+   * @return virtual threads options
+   */
+  public VirtualThreadOptions getVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Sets the virtual threads processing used when execution mode is {@code VIRTUAL_THREAD}.
+   *
+   * @param virtualThreads virtual threads options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setVirtualThreads(VirtualThreadOptions virtualThreads) {
+    this.virtualThreads = virtualThreads;
+    return this;
+  }
+
+  /**
+   * @return admission control options
+   */
+  public AdmissionOptions getAdmission() {
+    return admission;
+  }
+
+  /**
+   * Sets limits of fragments processed concurrently and waiting for processing. Fragments above
+   * both limits are answered immediately with the {@code _overloaded} transition, so the fragments
+   * handler can fall back instead of waiting for a timeout.
+   *
+   * @param admission admission control options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setAdmission(AdmissionOptions admission) {
+    this.admission = admission;
+    return this;
+  }
+
+  /**
+   * @return max render time of a fragment in milliseconds, 0 means no limit
+   */
+  public long getRenderTimeout() {
+    return renderTimeout;
+  }
+
+  /**
+   * Sets the max time (in ms) of rendering a single fragment. Engines check the time while writing
+   * output and iterating loops, and stop a render exceeding it, so the fragment ends with the
+   * {@code _timeout} transition and the fragments handler can serve a fallback. Blocking calls in
+   * custom helpers are not interrupted. Default is {@code 0}, which disables the limit.
+   *
+   * @param renderTimeout max render time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setRenderTimeout(long renderTimeout) {
+    this.renderTimeout = renderTimeout;
+    return this;
+  }
+
+  /**
+   * @return max number of characters rendered for a fragment, 0 means no limit
+   */
+  public long getMaxOutputSize() {
+    return maxOutputSize;
+  }
+
+  /**
+   * Sets the max number of characters rendered for a single fragment. Engines count characters as
+   * they are written and stop a render exceeding the limit, so a runaway template fails before it
+   * allocates a huge output. Default is {@code 0}, which disables the limit.
+   *
+   * @param maxOutputSize max number of rendered characters
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setMaxOutputSize(long maxOutputSize) {
+    this.maxOutputSize = maxOutputSize;
+    return this;
+  }
+
+  /**
+   * @return max number of loop iterations of a fragment render, 0 means no limit
+   */
+  public long getMaxIterations() {
+    return maxIterations;
+  }
+
+  /**
+   * Sets the max total number of loop iterations over payload arrays (Handlebars {@code each},
+   * Pebble {@code for}) of a single fragment render, nested loops included. Default is {@code 0},
+   * which disables the limit.
+   *
+   * @param maxIterations max number of loop iterations
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setMaxIterations(long maxIterations) {
+    this.maxIterations = maxIterations;
+    return this;
+  }
+
+  /**
+   * @return rendered output cache options
+   */
+  public OutputCacheOptions getOutputCache() {
+    return outputCache;
+  }
+
+  /**
+   * Sets the rendered output cache. When enabled, fragments with the same body and payload skip
+   * rendering and reuse the cached output.
+   *
+   * @param outputCache rendered output cache options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setOutputCache(OutputCacheOptions outputCache) {
+    this.outputCache = outputCache;
+    return this;
+  }
+
+  /**
+   * @return templates warmup options
+   */
+  public WarmupOptions getWarmup() {
+    return warmup;
+  }
+
+  /**
+   * Sets templates compiled (and optionally rendered) on start. The Knot starts consuming fragments
+   * only when the warmup completes.
+   *
+   * @param warmup templates warmup options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TemplateEngineKnotOptions setWarmup(WarmupOptions warmup) {
+    this.warmup = warmup;
+    return this;
+  }
 }
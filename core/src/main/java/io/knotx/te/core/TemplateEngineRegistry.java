@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.te.api.TemplateEngine;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.reactivex.core.Vertx;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Shares template engines between Knot instances deployed in the same Vert.x instance. Engines are
+ * identified by the factory name and configuration together with the output cache options, so
+ * instances share rendered outputs as well. They are created by the first instance that acquires
+ * them and closed when the last instance releases them.
+ */
+class TemplateEngineRegistry {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplateEngineRegistry.class);
+
+  private static final String ENGINES_MAP_NAME = "knotx.te.engines";
+
+  private final LocalMap<String, SharedTemplateEngine> engines;
+
+  TemplateEngineRegistry(Vertx vertx) {
+    this.engines = vertx.getDelegate().sharedData().getLocalMap(ENGINES_MAP_NAME);
+  }
+
+  TemplateEngine acquire(TemplateEngineEntry entry, OutputCacheOptions outputCache,
+      Supplier<TemplateEngine> engineSupplier) {
+    return engines.compute(keyOf(entry, outputCache), (key, shared) -> {
+      if (shared == null) {
+        LOGGER.info("Creating shared template engine [{}]", entry.getFactory());
+        return new SharedTemplateEngine(engineSupplier.get());
+      }
+      shared.references++;
+      return shared;
+    }).engine;
+  }
+
+  void release(TemplateEngineEntry entry, OutputCacheOptions outputCache) {
+    AtomicReference<TemplateEngine> released = new AtomicReference<>();
+    engines.computeIfPresent(keyOf(entry, outputCache), (key, shared) -> {
+      shared.references--;
+      if (shared.references > 0) {
+        return shared;
+      }
+      released.set(shared.engine);
+      return null;
+    });
+    if (released.get() != null) {
+      LOGGER.info("Closing shared template engine [{}]", entry.getFactory());
+      released.get().close();
+    }
+  }
+
+  private static String keyOf(TemplateEngineEntry entry, OutputCacheOptions outputCache) {
+    return entry.getFactory() + ":" + sorted(entry.getConfig()).encode() + ":"
+        + sorted(outputCache.toJson()).encode();
+  }
+
+  /**
+   * @return copy of the JSON object with keys of all nested objects sorted, so configurations
+   * differing only in the order of fields are encoded the same
+   */
+  private static JsonObject sorted(JsonObject json) {
+    return (JsonObject) sortedValue(json);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object sortedValue(Object value) {
+    if (value instanceof JsonObject) {
+      value = ((JsonObject) value).getMap();
+    } else if (value instanceof JsonArray) {
+      value = ((JsonArray) value).getList();
+    }
+    if (value instanceof Map) {
+      Map<String, Object> sorted = new TreeMap<>();
+      ((Map<String, Object>) value).forEach((key, child) -> sorted.put(key, sortedValue(child)));
+      return new JsonObject(sorted);
+    } else if (value instanceof List) {
+      List<Object> sorted = new ArrayList<>();
+      ((List<Object>) value).forEach(child -> sorted.add(sortedValue(child)));
+      return new JsonArray(sorted);
+    }
+    return value;
+  }
+
+  private static final class SharedTemplateEngine implements Shareable {
+
+    private final TemplateEngine engine;
+    private int references;
+
+    private SharedTemplateEngine(TemplateEngine engine) {
+      this.engine = engine;
+      this.references = 1;
+    }
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.api.TemplateEngine;
+import io.reactivex.Completable;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles templates listed in {@link WarmupOptions} into the engine cache and renders them with
+ * sample payloads. The warmup runs on a worker thread, so it does not block the event loop. A
+ * sample whose template or payload can not be read, compiled or rendered is logged and skipped,
+ * while a manifest or directory that can not be read fails the warmup.
+ */
+class TemplateWarmup {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplateWarmup.class);
+
+  private static final String PAYLOAD_EXTENSION = ".json";
+
+  private final Vertx vertx;
+  private final TemplateEngine templateEngine;
+  private final WarmupOptions options;
+
+  TemplateWarmup(Vertx vertx, TemplateEngine templateEngine, WarmupOptions options) {
+    this.vertx = vertx;
+    this.templateEngine = templateEngine;
+    this.options = options;
+  }
+
+  Completable run() {
+    if (options.getManifest() == null && options.getDirectory() == null) {
+      return Completable.complete();
+    }
+    return vertx.rxExecuteBlocking(promise -> {
+      warmup();
+      promise.complete();
+    }, false).ignoreElement();
+  }
+
+  private void warmup() {
+    long start = System.currentTimeMillis();
+    FileSystem fileSystem = vertx.getDelegate().fileSystem();
+    List<Sample> samples = new ArrayList<>();
+    if (options.getManifest() != null) {
+      samples.addAll(samplesFromManifest(fileSystem, options.getManifest()));
+    }
+    if (options.getDirectory() != null) {
+      samples.addAll(samplesFromDirectory(fileSystem, options.getDirectory()));
+    }
+    int warmed = 0;
+    for (Sample sample : samples) {
+      if (warmup(fileSystem, sample)) {
+        warmed++;
+      }
+    }
+    LOGGER.info("Warmed up [{}/{}] templates in {} ms", warmed, samples.size(),
+        System.currentTimeMillis() - start);
+  }
+
+  private boolean warmup(FileSystem fileSystem, Sample sample) {
+    try {
+      if (sample.templatePath == null) {
+        throw new IllegalArgumentException("Warmup sample requires 'template' path");
+      }
+      JsonObject payload = sample.payloadPath == null ? new JsonObject()
+          : fileSystem.readFileBlocking(sample.payloadPath).toJsonObject();
+      CompiledTemplate template = templateEngine
+          .compile(fileSystem.readFileBlocking(sample.templatePath).toString());
+      for (int i = 0; i < options.getIterations(); i++) {
+        template.render(payload);
+      }
+      return true;
+    } catch (RuntimeException e) {
+      LOGGER.warn("Could not warm up template [{}] with payload [{}]", sample.templatePath,
+          sample.payloadPath, e);
+      return false;
+    }
+  }
+
+  private List<Sample> samplesFromManifest(FileSystem fileSystem, String manifest) {
+    List<Sample> samples = new ArrayList<>();
+    JsonArray entries = fileSystem.readFileBlocking(manifest).toJsonArray();
+    for (int i = 0; i < entries.size(); i++) {
+      JsonObject entry = entries.getJsonObject(i);
+      samples.add(new Sample(entry.getString("template"), entry.getString("payload")));
+    }
+    return samples;
+  }
+
+  private List<Sample> samplesFromDirectory(FileSystem fileSystem, String directory) {
+    List<Sample> samples = new ArrayList<>();
+    for (String path : fileSystem.readDirBlocking(directory)) {
+      if (path.endsWith(PAYLOAD_EXTENSION) || fileSystem.propsBlocking(path).isDirectory()) {
+        continue;
+      }
+      String payloadPath = payloadPathOf(path);
+      samples.add(new Sample(path, fileSystem.existsBlocking(payloadPath) ? payloadPath : null));
+    }
+    return samples;
+  }
+
+  private static String payloadPathOf(String templatePath) {
+    int extension = templatePath.lastIndexOf('.');
+    boolean hasExtension = extension > templatePath.lastIndexOf(File.separatorChar);
+    return (hasExtension ? templatePath.substring(0, extension) : templatePath)
+        + PAYLOAD_EXTENSION;
+  }
+
+  private static final class Sample {
+
+    private final String templatePath;
+    private final String payloadPath;
+
+    private Sample(String templatePath, String payloadPath) {
+      this.templatePath = templatePath;
+      this.payloadPath = payloadPath;
+    }
+  }
+
+}
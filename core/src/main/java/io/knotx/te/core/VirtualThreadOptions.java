@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes virtual threads processing used when {@code VIRTUAL_THREAD} execution mode is enabled.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class VirtualThreadOptions {
+
+  public static final int DEFAULT_MAX_CONCURRENCY = 1000;
+
+  private int maxConcurrency;
+
+  public VirtualThreadOptions() {
+    init();
+  }
+
+  public VirtualThreadOptions(VirtualThreadOptions other) {
+    this.maxConcurrency = other.maxConcurrency;
+  }
+
+  public VirtualThreadOptions(JsonObject json) {
+    init();
+    VirtualThreadOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    VirtualThreadOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  private void init() {
+    maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+  }
+
+  /**
+   * @return max number of templates processed concurrently
+   */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Sets the maximum number of templates processed concurrently by a Knot instance. Virtual
+   * threads above the limit wait for a permit before processing starts. Default is {@code 1000}.
+   *
+   * @param maxConcurrency max number of templates processed concurrently
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VirtualThreadOptions setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "VirtualThreadOptions{" +
+        "maxConcurrency=" + maxConcurrency +
+        '}';
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.reactivex.Single;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Context;
+import io.vertx.reactivex.core.RxHelper;
+import io.vertx.reactivex.core.Vertx;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+class VirtualThreadRenderExecutor implements RenderExecutor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadRenderExecutor.class);
+
+  private final Vertx vertx;
+  private final ExecutorService executor;
+  private final Semaphore permits;
+
+  VirtualThreadRenderExecutor(Vertx vertx, VirtualThreadOptions options) {
+    LOGGER.info("Templates will be processed on virtual threads [{}]", options);
+    this.vertx = vertx;
+    this.executor = newVirtualThreadPerTaskExecutor();
+    this.permits = new Semaphore(options.getMaxConcurrency());
+  }
+
+  @Override
+  public <T> Single<T> execute(Single<T> task) {
+    Context context = vertx.getOrCreateContext();
+    return Single.<T>create(emitter -> executor.execute(() -> {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        emitter.tryOnError(e);
+        return;
+      }
+      task.doFinally(permits::release)
+          .subscribe(emitter::onSuccess, emitter::tryOnError);
+    })).observeOn(RxHelper.scheduler(context));
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * Virtual threads are available since JDK 21, while this module is compiled for older JDKs, so
+   * the executor is looked up reflectively.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (NoSuchMethodException | InvocationTargetException e) {
+      throw new IllegalStateException("VIRTUAL_THREAD execution mode requires JDK 21+, found "
+          + System.getProperty("java.version"), e);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Describes templates compiled (and optionally rendered) when the Knot starts, before it starts
+ * consuming fragments.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class WarmupOptions {
+
+  private String manifest;
+  private String directory;
+  private int iterations;
+
+  public WarmupOptions() {
+  }
+
+  public WarmupOptions(WarmupOptions other) {
+    this.manifest = other.manifest;
+    this.directory = other.directory;
+    this.iterations = other.iterations;
+  }
+
+  public WarmupOptions(JsonObject json) {
+    WarmupOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    WarmupOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return path to the warmup manifest
+   */
+  public String getManifest() {
+    return manifest;
+  }
+
+  /**
+   * Sets the path (on the file system or the classpath) to a JSON manifest listing templates and
+   * their sample payloads, e.g. {@code [{"template": "templates/home.hbs", "payload":
+   * "templates/home.json"}]}. Listed paths are resolved the same way as the manifest. The payload
+   * is optional.
+   *
+   * @param manifest path to the warmup manifest
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WarmupOptions setManifest(String manifest) {
+    this.manifest = manifest;
+    return this;
+  }
+
+  /**
+   * @return path to the warmup directory
+   */
+  public String getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Sets the file system directory with templates. Each file except {@code .json} files is a
+   * template, and {@code <template name>.json} next to it (if present) is its sample payload.
+   *
+   * @param directory path to the warmup directory
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WarmupOptions setDirectory(String directory) {
+    this.directory = directory;
+    return this;
+  }
+
+  /**
+   * @return number of times each template is rendered
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Sets how many times each template is rendered with its sample payload after compilation, so
+   * the rendering code is optimised by the JIT before the first fragment arrives. Default is
+   * {@code 0}, which means templates are only compiled.
+   *
+   * @param iterations number of times each template is rendered
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WarmupOptions setIterations(int iterations) {
+    this.iterations = iterations;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "WarmupOptions{" +
+        "manifest='" + manifest + '\'' +
+        ", directory='" + directory + '\'' +
+        ", iterations=" + iterations +
+        '}';
+  }
+}
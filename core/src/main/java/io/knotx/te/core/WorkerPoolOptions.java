@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes the worker pool used when {@code WORKER_POOL} execution mode is enabled.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class WorkerPoolOptions {
+
+  public static final String DEFAULT_NAME = "knotx-te-worker";
+  public static final int DEFAULT_POOL_SIZE = VertxOptions.DEFAULT_WORKER_POOL_SIZE;
+  public static final long DEFAULT_MAX_EXECUTE_TIME = TimeUnit.NANOSECONDS
+      .toMillis(VertxOptions.DEFAULT_MAX_WORKER_EXECUTE_TIME);
+
+  private String name;
+  private int poolSize;
+  private long maxExecuteTime;
+  private boolean ordered;
+
+  public WorkerPoolOptions() {
+    init();
+  }
+
+  public WorkerPoolOptions(WorkerPoolOptions other) {
+    this.name = other.name;
+    this.poolSize = other.poolSize;
+    this.maxExecuteTime = other.maxExecuteTime;
+    this.ordered = other.ordered;
+  }
+
+  public WorkerPoolOptions(JsonObject json) {
+    init();
+    WorkerPoolOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    WorkerPoolOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  private void init() {
+    name = DEFAULT_NAME;
+    poolSize = DEFAULT_POOL_SIZE;
+    maxExecuteTime = DEFAULT_MAX_EXECUTE_TIME;
+    ordered = false;
+  }
+
+  /**
+   * @return name of the shared worker pool
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Sets the name of the shared worker pool. All Knot instances configured with the same name
+   * share the same pool. Default is {@code "knotx-te-worker"}.
+   *
+   * @param name worker pool name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WorkerPoolOptions setName(String name) {
+    this.name = name;
+    return this;
+  }
+
+  /**
+   * @return number of worker threads
+   */
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  /**
+   * Sets the number of threads in the worker pool. Default is the Vert.x default worker pool size
+   * ({@code 20}).
+   *
+   * @param poolSize number of worker threads
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WorkerPoolOptions setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+    return this;
+  }
+
+  /**
+   * @return max execute time in milliseconds
+   */
+  public long getMaxExecuteTime() {
+    return maxExecuteTime;
+  }
+
+  /**
+   * Sets the maximum time (in milliseconds) a single template processing may take before Vert.x
+   * reports a blocked worker thread. Default is {@code 60000}.
+   *
+   * @param maxExecuteTime max execute time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WorkerPoolOptions setMaxExecuteTime(long maxExecuteTime) {
+    this.maxExecuteTime = maxExecuteTime;
+    return this;
+  }
+
+  /**
+   * @return flag indicating whether fragments are processed in order
+   */
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  /**
+   * Sets whether fragments received by a single Knot instance are processed one after another.
+   * Default is {@code false}, so fragments are processed concurrently on all pool threads.
+   *
+   * @param ordered flag indicating whether fragments are processed in order
+   * @return a reference to this, so the API can be used fluently
+   */
+  public WorkerPoolOptions setOrdered(boolean ordered) {
+    this.ordered = ordered;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "WorkerPoolOptions{" +
+        "name='" + name + '\'' +
+        ", poolSize=" + poolSize +
+        ", maxExecuteTime=" + maxExecuteTime +
+        ", ordered=" + ordered +
+        '}';
+  }
+}
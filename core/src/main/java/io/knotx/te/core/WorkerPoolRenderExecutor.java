@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import io.reactivex.Single;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.WorkerExecutor;
+import java.util.concurrent.TimeUnit;
+
+class WorkerPoolRenderExecutor implements RenderExecutor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WorkerPoolRenderExecutor.class);
+
+  private final WorkerExecutor workerExecutor;
+  private final boolean ordered;
+
+  WorkerPoolRenderExecutor(Vertx vertx, WorkerPoolOptions options) {
+    LOGGER.info("Templates will be processed on worker pool [{}]", options);
+    this.workerExecutor = vertx.createSharedWorkerExecutor(options.getName(),
+        options.getPoolSize(), options.getMaxExecuteTime(), TimeUnit.MILLISECONDS);
+    this.ordered = options.isOrdered();
+  }
+
+  @Override
+  public <T> Single<T> execute(Single<T> task) {
+    return workerExecutor.<T>rxExecuteBlocking(
+        promise -> task.subscribe(promise::complete, promise::fail), ordered)
+        .toSingle();
+  }
+
+  @Override
+  public void close() {
+    workerExecutor.close();
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core.exception;
+
+/**
+ * Thrown when a fragment is rejected because the Knot processes and queues as many fragments as
+ * its admission limits allow.
+ */
+public class RenderOverloadedException extends RuntimeException {
+
+  public RenderOverloadedException(int maxInFlight, int maxPending) {
+    super("Too many fragments in processing, limits: maxInFlight=" + maxInFlight
+        + ", maxPending=" + maxPending + ".");
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.knotx.te.core.exception.RenderOverloadedException;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.SingleSubject;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControlRenderExecutorTest {
+
+  private final AtomicInteger started = new AtomicInteger();
+
+  @Test
+  @DisplayName("Expect tasks above max in flight started when running tasks complete")
+  void expectPendingTaskStartedOnCompletion() {
+    RenderExecutor executor = executor(1, 1);
+    SingleSubject<String> first = SingleSubject.create();
+    SingleSubject<String> second = SingleSubject.create();
+
+    TestObserver<String> firstResult = executor.execute(counted(first)).test();
+    TestObserver<String> secondResult = executor.execute(counted(second)).test();
+    assertEquals(1, started.get());
+
+    first.onSuccess("first");
+    assertEquals(2, started.get());
+    second.onSuccess("second");
+
+    firstResult.assertValue("first");
+    secondResult.assertValue("second");
+  }
+
+  @Test
+  @DisplayName("Expect task rejected when max in flight and max pending are reached")
+  void expectTaskRejectedWhenOverloaded() {
+    RenderExecutor executor = executor(1, 1);
+    SingleSubject<String> first = SingleSubject.create();
+
+    executor.execute(counted(first)).test();
+    executor.execute(counted(SingleSubject.<String>create())).test();
+    executor.execute(counted(SingleSubject.<String>create())).test()
+        .assertError(RenderOverloadedException.class);
+
+    assertEquals(1, started.get());
+  }
+
+  @Test
+  @DisplayName("Expect permit released when task fails")
+  void expectPermitReleasedOnFailure() {
+    RenderExecutor executor = executor(1, 0);
+    SingleSubject<String> first = SingleSubject.create();
+
+    executor.execute(counted(first)).test();
+    first.onError(new IllegalStateException("broken template"));
+
+    executor.execute(counted(Single.just("second"))).test().assertValue("second");
+  }
+
+  @Test
+  @DisplayName("Expect pending task dropped when its subscriber is disposed")
+  void expectDisposedPendingTaskDropped() {
+    RenderExecutor executor = executor(1, 2);
+    SingleSubject<String> first = SingleSubject.create();
+
+    executor.execute(counted(first)).test();
+    executor.execute(counted(Single.just("disposed"))).test().dispose();
+    TestObserver<String> third = executor.execute(counted(Single.just("third"))).test();
+
+    first.onSuccess("first");
+    third.assertValue("third");
+    assertEquals(2, started.get());
+  }
+
+  @Test
+  @DisplayName("Expect admission options parsed from JSON")
+  void expectOptionsParsedFromJson() {
+    TemplateEngineKnotOptions options = new TemplateEngineKnotOptions(new JsonObject()
+        .put("admission", new JsonObject().put("maxInFlight", 64).put("maxPending", 10)));
+
+    assertEquals(64, options.getAdmission().getMaxInFlight());
+    assertEquals(10, options.getAdmission().getMaxPending());
+  }
+
+  private RenderExecutor executor(int maxInFlight, int maxPending) {
+    return new AdmissionControlRenderExecutor(new EventLoopRenderExecutor(),
+        new AdmissionOptions().setMaxInFlight(maxInFlight).setMaxPending(maxPending), "test");
+  }
+
+  private <T> Single<T> counted(Single<T> task) {
+    return task.doOnSubscribe(disposable -> started.incrementAndGet());
+  }
+}
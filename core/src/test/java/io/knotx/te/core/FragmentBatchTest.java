@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.knotx.server.api.context.ClientRequest;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FragmentBatchTest {
+
+  @Test
+  @DisplayName("Expect fragment contexts read from the batch request in order")
+  void expectContextsRoundTrip() {
+    Fragment first = new Fragment("snippet", new JsonObject(), "{{first}}");
+    Fragment second = new Fragment("snippet", new JsonObject(), "{{second}}");
+
+    List<FragmentContext> contexts = FragmentBatch.contextsOf(FragmentBatch.toRequest(Arrays.asList(
+        new FragmentContext(first, new ClientRequest()),
+        new FragmentContext(second, new ClientRequest()))));
+
+    assertEquals(2, contexts.size());
+    assertEquals("{{first}}", contexts.get(0).getFragment().getBody());
+    assertEquals("{{second}}", contexts.get(1).getFragment().getBody());
+  }
+
+  @Test
+  @DisplayName("Expect fragment results read from the batch reply in order")
+  void expectResultsRoundTrip() {
+    Fragment rendered = new Fragment("snippet", new JsonObject(), "rendered");
+    Fragment failed = new Fragment("snippet", new JsonObject(), "{{broken");
+
+    List<FragmentResult> results = FragmentBatch.resultsOf(FragmentBatch.toReply(Arrays.asList(
+        new FragmentResult(rendered, FragmentResult.SUCCESS_TRANSITION),
+        new FragmentResult(failed, FragmentResult.ERROR_TRANSITION))));
+
+    assertEquals("rendered", results.get(0).getFragment().getBody());
+    assertEquals(FragmentResult.SUCCESS_TRANSITION, results.get(0).getTransition());
+    assertEquals(FragmentResult.ERROR_TRANSITION, results.get(1).getTransition());
+  }
+
+  @Test
+  @DisplayName("Expect IllegalArgumentException when the batch request has no contexts")
+  void expectInvalidRequestRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> FragmentBatch.contextsOf(new JsonObject().put("fragments", "none")));
+  }
+
+  @Test
+  @DisplayName("Expect batch fragments processed in parallel by the worker pool")
+  void expectBatchProcessedInParallel() {
+    Vertx vertx = Vertx.vertx();
+    RenderExecutor executor = new WorkerPoolRenderExecutor(vertx,
+        new WorkerPoolOptions().setName("te-batch-test-pool").setPoolSize(2).setOrdered(false));
+    // each fragment waits until the other one is rendering, so sequential processing times out
+    CountDownLatch rendering = new CountDownLatch(2);
+    Fragment fragment = new Fragment("snippet", new JsonObject(), "body");
+    List<FragmentContext> contexts = Arrays.asList(
+        new FragmentContext(fragment, new ClientRequest()),
+        new FragmentContext(fragment, new ClientRequest()));
+
+    List<FragmentResult> results = FragmentBatch.process(contexts,
+        context -> executor.execute(Single.fromCallable(() -> {
+          rendering.countDown();
+          if (!rendering.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Fragments not rendered in parallel");
+          }
+          return new FragmentResult(context.getFragment(), FragmentResult.SUCCESS_TRANSITION);
+        })))
+        .blockingGet();
+
+    assertTrue(results.stream()
+        .allMatch(result -> FragmentResult.SUCCESS_TRANSITION.equals(result.getTransition())));
+    executor.close();
+    vertx.close();
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LocalKnotProxyTest {
+
+  private static final String ADDRESS = "knotx.knot.te.local";
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  @DisplayName("Expect fragment context and result passed by reference")
+  void expectMessagesPassedByReference() throws Exception {
+    FragmentContext sent = new FragmentContext(
+        new Fragment("snippet", new JsonObject(), "{{name}}"), new ClientRequest());
+    FragmentResult replied = new FragmentResult(sent.getFragment(),
+        FragmentResult.SUCCESS_TRANSITION);
+    CompletableFuture<FragmentContext> received = new CompletableFuture<>();
+    LocalKnotProxy proxy = new LocalKnotProxy(vertx, ADDRESS);
+    vertx.eventBus().<FragmentContext>localConsumer(ADDRESS, message -> {
+      received.complete(message.body());
+      message.reply(replied,
+          new DeliveryOptions().setCodecName(LocalMessageCodec.FRAGMENT_RESULT));
+    });
+
+    assertSame(replied, apply(proxy, sent));
+    assertSame(sent, received.get());
+  }
+
+  @Test
+  @DisplayName("Expect processing failure reported to the caller")
+  void expectFailurePropagated() {
+    LocalKnotProxy proxy = new LocalKnotProxy(vertx, ADDRESS);
+    vertx.eventBus().<FragmentContext>localConsumer(ADDRESS,
+        message -> message.fail(500, "broken template"));
+    FragmentContext sent = new FragmentContext(
+        new Fragment("snippet", new JsonObject(), "{{name"), new ClientRequest());
+
+    ExecutionException error = assertThrows(ExecutionException.class, () -> apply(proxy, sent));
+    assertSame(ReplyException.class, error.getCause().getClass());
+  }
+
+  @Test
+  @DisplayName("Expect codecs registered once when many proxies and Knots share Vert.x")
+  void expectCodecsRegisteredOnce() {
+    new LocalKnotProxy(vertx, ADDRESS);
+    new LocalKnotProxy(vertx, ADDRESS);
+    LocalMessageCodec.registerIfAbsent(vertx.eventBus());
+  }
+
+  @Test
+  @DisplayName("Expect conflicting codec registration reported")
+  void expectConflictingCodecReported() {
+    vertx.eventBus().registerCodec(new ConflictingCodec());
+
+    assertThrows(IllegalStateException.class, () -> new LocalKnotProxy(vertx, ADDRESS));
+  }
+
+  @Test
+  @DisplayName("Expect fragment context encoded as JSON when sent to another cluster node")
+  void expectContextEncodedAsJson() {
+    FragmentContext sent = new FragmentContext(
+        new Fragment("snippet", new JsonObject().put("engine", "handlebars"), "{{name}}")
+            .appendPayload("name", "Knot.x"), new ClientRequest());
+    LocalMessageCodec<FragmentContext> codec = LocalMessageCodec.fragmentContext();
+    Buffer buffer = Buffer.buffer("header");
+    codec.encodeToWire(buffer, sent);
+
+    assertEquals(sent.toJson(), codec.decodeFromWire("header".length(), buffer).toJson());
+  }
+
+  @Test
+  @DisplayName("Expect fragment result encoded as JSON when sent to another cluster node")
+  void expectResultEncodedAsJson() {
+    FragmentResult sent = new FragmentResult(
+        new Fragment("snippet", new JsonObject(), "<p>Knot.x</p>"),
+        FragmentResult.SUCCESS_TRANSITION);
+    LocalMessageCodec<FragmentResult> codec = LocalMessageCodec.fragmentResult();
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, sent);
+
+    assertEquals(sent.toJson(), codec.decodeFromWire(0, buffer).toJson());
+  }
+
+  private static class ConflictingCodec implements MessageCodec<String, String> {
+
+    @Override
+    public void encodeToWire(Buffer buffer, String message) {
+      buffer.appendString(message);
+    }
+
+    @Override
+    public String decodeFromWire(int pos, Buffer buffer) {
+      return buffer.getString(pos, buffer.length());
+    }
+
+    @Override
+    public String transform(String message) {
+      return message;
+    }
+
+    @Override
+    public String name() {
+      return LocalMessageCodec.FRAGMENT_CONTEXT;
+    }
+
+    @Override
+    public byte systemCodecID() {
+      return -1;
+    }
+  }
+
+  private static FragmentResult apply(LocalKnotProxy proxy, FragmentContext fragmentContext)
+      throws Exception {
+    CompletableFuture<FragmentResult> result = new CompletableFuture<>();
+    proxy.apply(fragmentContext, reply -> {
+      if (reply.succeeded()) {
+        result.complete(reply.result());
+      } else {
+        result.completeExceptionally(reply.cause());
+      }
+    });
+    return result.get(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.common.metrics.TemplateEngineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MeteredTemplateEngineTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  @DisplayName("Expect processing time and output size recorded with engine tag")
+  void expectProcessingRecorded() {
+    TemplateEngine engine = new MeteredTemplateEngine(Fragment::getBody, registry, "dummy");
+
+    engine.process(fragment("12345"));
+    engine.processAsync(fragment("123")).blockingGet();
+
+    assertEquals(2, registry.get(TemplateEngineMetrics.RENDER_TIMER)
+        .tag(TemplateEngineMetrics.ENGINE_TAG, "dummy").timer().count());
+    assertEquals(8.0, registry.get(TemplateEngineMetrics.OUTPUT_SIZE)
+        .tag(TemplateEngineMetrics.ENGINE_TAG, "dummy").summary().totalAmount());
+  }
+
+  @Test
+  @DisplayName("Expect failures counted")
+  void expectFailuresCounted() {
+    TemplateEngine engine = new MeteredTemplateEngine(fragment -> {
+      throw new IllegalStateException("broken template");
+    }, registry, "dummy");
+
+    assertThrows(IllegalStateException.class, () -> engine.process(fragment("broken")));
+    engine.processAsync(fragment("broken")).test().assertError(IllegalStateException.class);
+
+    assertEquals(2.0, registry.get(TemplateEngineMetrics.FAILURES)
+        .tag(TemplateEngineMetrics.ENGINE_TAG, "dummy").counter().count());
+  }
+
+  private static Fragment fragment(String body) {
+    return new Fragment("snippet", new JsonObject(), body);
+  }
+
+}
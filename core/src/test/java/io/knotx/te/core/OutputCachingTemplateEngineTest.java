@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.common.cache.TemplateKey;
+import io.knotx.te.common.cache.TemplateKeyStrategy;
+import io.vertx.core.json.JsonObject;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OutputCachingTemplateEngineTest {
+
+  private static final TemplateKeyStrategy CONSTANT_KEY_STRATEGY =
+      source -> new TemplateKey(1L, 1L);
+
+  private final AtomicInteger renders = new AtomicInteger();
+
+  private final TemplateEngine delegate = fragment -> {
+    renders.incrementAndGet();
+    return fragment.getBody() + fragment.getPayload().encode();
+  };
+
+  @Test
+  @DisplayName("Expect fragment with the same body and payload rendered once")
+  void expectOutputReused() {
+    OutputCachingTemplateEngine engine = new OutputCachingTemplateEngine(delegate,
+        new OutputCacheOptions().setEnabled(true), "test");
+
+    String first = engine.process(fragment("{{name}}", "John"));
+    String second = engine.processAsync(fragment("{{name}}", "John")).blockingGet();
+
+    assertEquals(first, second);
+    assertEquals(1, renders.get());
+    assertEquals(1, engine.stats().hitCount());
+    assertEquals(1, engine.stats().missCount());
+  }
+
+  @Test
+  @DisplayName("Expect fragment rendered again when payload differs")
+  void expectPayloadChangeRendered() {
+    OutputCachingTemplateEngine engine = new OutputCachingTemplateEngine(delegate,
+        new OutputCacheOptions().setEnabled(true), "test");
+
+    String first = engine.process(fragment("{{name}}", "John"));
+    String second = engine.process(fragment("{{name}}", "Jane"));
+
+    assertTrue(second.contains("Jane"), second);
+    assertEquals(2, renders.get());
+    assertEquals(0, engine.stats().hitCount());
+  }
+
+  @Test
+  @DisplayName("Expect fragment rendered again when body differs")
+  void expectBodyChangeRendered() {
+    OutputCachingTemplateEngine engine = new OutputCachingTemplateEngine(delegate,
+        new OutputCacheOptions().setEnabled(true), "test");
+
+    engine.process(fragment("{{name}}", "John"));
+    engine.process(fragment("Hello {{name}}", "John"));
+
+    assertEquals(2, renders.get());
+  }
+
+  @Test
+  @DisplayName("Expect output reused when only values not referenced by the template differ")
+  void expectPrunedPayloadIdentifiesOutput() {
+    CompiledTemplate template = new CompiledTemplate() {
+      @Override
+      public String render(JsonObject payload) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void render(JsonObject payload, Writer writer) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public JsonObject prune(JsonObject payload) {
+        return new JsonObject().put("name", payload.getValue("name"));
+      }
+    };
+    TemplateEngine pruningDelegate = new TemplateEngine() {
+      @Override
+      public String process(Fragment fragment) {
+        return delegate.process(fragment);
+      }
+
+      @Override
+      public CompiledTemplate compile(String body) {
+        return template;
+      }
+    };
+    OutputCachingTemplateEngine engine = new OutputCachingTemplateEngine(pruningDelegate,
+        new OutputCacheOptions().setEnabled(true), "test");
+
+    Fragment first = fragment("{{name}}", "John");
+    first.mergeInPayload(new JsonObject().put("unused", 1));
+    Fragment second = fragment("{{name}}", "John");
+    second.mergeInPayload(new JsonObject().put("unused", 2));
+
+    engine.process(first);
+    engine.process(second);
+
+    assertEquals(1, renders.get());
+  }
+
+  @Test
+  @DisplayName("Expect fragment rendered again when payload hashes collide")
+  void expectCollisionRenderedAgain() {
+    OutputCachingTemplateEngine engine = new OutputCachingTemplateEngine(delegate,
+        new OutputCacheOptions().setEnabled(true), CONSTANT_KEY_STRATEGY, "test");
+
+    engine.process(fragment("{{name}}", "John"));
+    String second = engine.process(fragment("{{name}}", "Jane"));
+
+    assertTrue(second.contains("Jane"), second);
+    assertEquals(2, renders.get());
+  }
+
+  @Test
+  @DisplayName("Expect colliding payload served cached output when key verification is disabled")
+  void expectCollisionServedWithoutVerification() {
+    OutputCachingTemplateEngine engine = new OutputCachingTemplateEngine(delegate,
+        new OutputCacheOptions().setEnabled(true).setKeyVerification(false),
+        CONSTANT_KEY_STRATEGY, "test");
+
+    String first = engine.process(fragment("{{name}}", "John"));
+
+    assertEquals(first, engine.process(fragment("{{name}}", "Jane")));
+    assertEquals(1, renders.get());
+  }
+
+  @Test
+  @DisplayName("Expect output cache read from JSON configuration")
+  void expectOutputCacheFromJson() {
+    TemplateEngineKnotOptions options = new TemplateEngineKnotOptions(
+        new JsonObject().put("outputCache",
+            new JsonObject().put("enabled", true).put("timeToLive", 1000L)));
+
+    assertTrue(options.getOutputCache().isEnabled());
+    assertTrue(options.getOutputCache().isKeyVerification());
+    assertEquals(1000L, options.getOutputCache().getTimeToLive());
+    assertEquals(OutputCacheOptions.DEFAULT_MAXIMUM_SIZE,
+        options.getOutputCache().getMaximumSize());
+  }
+
+  private static Fragment fragment(String body, String name) {
+    Fragment fragment = new Fragment("snippet", new JsonObject(), body);
+    fragment.mergeInPayload(new JsonObject().put("name", name));
+    return fragment;
+  }
+
+}
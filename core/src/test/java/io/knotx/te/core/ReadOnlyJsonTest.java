@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ReadOnlyJsonTest {
+
+  private static JsonObject payload() {
+    return new JsonObject()
+        .put("title", "T")
+        .put("user", new JsonObject().put("name", "Knot.x"))
+        .put("items", new JsonArray().add(new JsonObject().put("id", 1)));
+  }
+
+  @Test
+  @DisplayName("Expect view equal to the viewed object")
+  void expectViewEqual() {
+    JsonObject payload = payload();
+
+    assertEquals(payload, ReadOnlyJson.view(payload));
+    assertEquals(payload.encode(), ReadOnlyJson.view(payload).encode());
+  }
+
+  @Test
+  @DisplayName("Expect modifications of the view rejected at any depth")
+  void expectModificationsRejected() {
+    JsonObject view = ReadOnlyJson.view(payload());
+
+    assertThrows(UnsupportedOperationException.class, () -> view.put("title", "X"));
+    assertThrows(UnsupportedOperationException.class, () -> view.remove("title"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> view.getJsonObject("user").put("name", "X"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> view.getJsonArray("items").add("X"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> view.getJsonArray("items").getJsonObject(0).clear());
+  }
+
+  @Test
+  @DisplayName("Expect modifications of the viewed object visible in the view")
+  void expectOwnerModificationsVisible() {
+    JsonObject payload = payload();
+    JsonObject view = ReadOnlyJson.view(payload);
+    payload.getJsonObject("user").put("name", "X");
+
+    assertEquals("X", view.getJsonObject("user").getString("name"));
+  }
+
+  @Test
+  @DisplayName("Expect no view of missing object")
+  void expectNullViewOfNull() {
+    assertNull(ReadOnlyJson.view(null));
+  }
+}
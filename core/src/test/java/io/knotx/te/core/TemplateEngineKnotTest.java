@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TemplateEngineKnotTest {
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  @DisplayName("Expect shared engine not kept in the registry when the Knot fails to start")
+  void expectSharedEngineReleasedWhenStartFails() {
+    TemplateEngineKnotOptions options = new TemplateEngineKnotOptions()
+        .setEngine(new TemplateEngineEntry(new JsonObject()
+            .put("factory", "dummy")
+            .put("shared", true)))
+        .setExecutionMode(ExecutionMode.WORKER_POOL)
+        .setWorkerPool(new WorkerPoolOptions().setPoolSize(0));
+
+    vertx.rxDeployVerticle(new TemplateEngineKnot(),
+        new DeploymentOptions().setConfig(options.toJson()))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertError(IllegalArgumentException.class);
+
+    AtomicInteger created = new AtomicInteger();
+    new TemplateEngineRegistry(vertx).acquire(options.getEngine(), options.getOutputCache(),
+        () -> {
+          created.incrementAndGet();
+          return new DummyTemplateEngineFactory().create(vertx, new JsonObject());
+        });
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  @DisplayName("Expect Knot with the batch endpoint not started in the EVENT_LOOP execution mode")
+  void expectBatchRefusedOnEventLoop() {
+    TemplateEngineKnotOptions options = new TemplateEngineKnotOptions()
+        .setEngine(new TemplateEngineEntry(new JsonObject().put("factory", "dummy")))
+        .setBatchAddress("te.test.batch")
+        .setExecutionMode(ExecutionMode.EVENT_LOOP);
+
+    vertx.rxDeployVerticle(new TemplateEngineKnot(),
+        new DeploymentOptions().setConfig(options.toJson()))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertError(IllegalStateException.class);
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.TemplateEngine;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TemplateEngineRegistryTest {
+
+  private static final OutputCacheOptions OUTPUT_CACHE = new OutputCacheOptions();
+
+  private final AtomicInteger created = new AtomicInteger();
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  @DisplayName("Expect one engine created for instances with the same factory and config")
+  void expectEngineShared() {
+    TemplateEngine first = new TemplateEngineRegistry(vertx)
+        .acquire(entry("a"), OUTPUT_CACHE, this::create);
+    TemplateEngine second = new TemplateEngineRegistry(vertx)
+        .acquire(entry("a"), OUTPUT_CACHE, this::create);
+
+    assertSame(first, second);
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  @DisplayName("Expect separate engines created for different configs")
+  void expectEnginesPerConfig() {
+    TemplateEngineRegistry registry = new TemplateEngineRegistry(vertx);
+
+    TemplateEngine first = registry.acquire(entry("a"), OUTPUT_CACHE, this::create);
+    TemplateEngine second = registry.acquire(entry("b"), OUTPUT_CACHE, this::create);
+
+    assertNotSame(first, second);
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  @DisplayName("Expect separate engines created for different output cache options")
+  void expectEnginesPerOutputCache() {
+    TemplateEngineRegistry registry = new TemplateEngineRegistry(vertx);
+
+    TemplateEngine first = registry.acquire(entry("a"), OUTPUT_CACHE, this::create);
+    TemplateEngine second = registry.acquire(entry("a"),
+        new OutputCacheOptions().setEnabled(true), this::create);
+
+    assertNotSame(first, second);
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  @DisplayName("Expect engine kept until released by all instances")
+  void expectEngineReleasedByLastInstance() {
+    TemplateEngineRegistry registry = new TemplateEngineRegistry(vertx);
+    TemplateEngine first = registry.acquire(entry("a"), OUTPUT_CACHE, this::create);
+    registry.acquire(entry("a"), OUTPUT_CACHE, this::create);
+
+    registry.release(entry("a"), OUTPUT_CACHE);
+    assertSame(first, registry.acquire(entry("a"), OUTPUT_CACHE, this::create));
+
+    registry.release(entry("a"), OUTPUT_CACHE);
+    registry.release(entry("a"), OUTPUT_CACHE);
+    assertNotSame(first, registry.acquire(entry("a"), OUTPUT_CACHE, this::create));
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  @DisplayName("Expect engine closed when released by the last instance")
+  void expectEngineClosedByLastInstance() {
+    TemplateEngineRegistry registry = new TemplateEngineRegistry(vertx);
+    AtomicInteger closed = new AtomicInteger();
+    Supplier<TemplateEngine> closeable = () -> new TemplateEngine() {
+      @Override
+      public String process(Fragment fragment) {
+        return fragment.getBody();
+      }
+
+      @Override
+      public void close() {
+        closed.incrementAndGet();
+      }
+    };
+    registry.acquire(entry("a"), OUTPUT_CACHE, closeable);
+    registry.acquire(entry("a"), OUTPUT_CACHE, closeable);
+
+    registry.release(entry("a"), OUTPUT_CACHE);
+    assertEquals(0, closed.get());
+
+    registry.release(entry("a"), OUTPUT_CACHE);
+    assertEquals(1, closed.get());
+  }
+
+  @Test
+  @DisplayName("Expect one engine created for configs differing only in the order of fields")
+  void expectConfigFieldOrderIgnored() {
+    TemplateEngineRegistry registry = new TemplateEngineRegistry(vertx);
+    TemplateEngineEntry first = new TemplateEngineEntry(new JsonObject()
+        .put("factory", "dummy")
+        .put("config", new JsonObject()
+            .put("a", 1)
+            .put("b", new JsonObject().put("c", 2).put("d", 3))));
+    TemplateEngineEntry second = new TemplateEngineEntry(new JsonObject()
+        .put("factory", "dummy")
+        .put("config", new JsonObject()
+            .put("b", new JsonObject().put("d", 3).put("c", 2))
+            .put("a", 1)));
+
+    assertSame(registry.acquire(first, OUTPUT_CACHE, this::create),
+        registry.acquire(second, OUTPUT_CACHE, this::create));
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  @DisplayName("Expect engine not shared by default")
+  void expectNotSharedByDefault() {
+    assertFalse(entry("a").isShared());
+    assertTrue(new TemplateEngineEntry(new JsonObject().put("factory", "dummy")
+        .put("shared", true)).isShared());
+  }
+
+  private TemplateEngine create() {
+    created.incrementAndGet();
+    return new DummyTemplateEngineFactory().create(vertx, new JsonObject());
+  }
+
+  private static TemplateEngineEntry entry(String name) {
+    return new TemplateEngineEntry(new JsonObject()
+        .put("factory", "dummy")
+        .put("config", new JsonObject().put("name", name)));
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.te.api.TemplateEngine;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TemplateWarmupTest {
+
+  private final List<JsonObject> renderedPayloads = new CopyOnWriteArrayList<>();
+
+  private final TemplateEngine templateEngine = fragment -> {
+    renderedPayloads.add(fragment.getPayload());
+    return fragment.getBody();
+  };
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  @DisplayName("Expect templates from the classpath manifest rendered with their payloads")
+  void expectManifestTemplatesRendered() {
+    WarmupOptions options = new WarmupOptions()
+        .setManifest("warmup/manifest.json")
+        .setIterations(3);
+
+    new TemplateWarmup(vertx, templateEngine, options).run()
+        .test().awaitDone(5, TimeUnit.SECONDS).assertComplete();
+
+    assertEquals(6, renderedPayloads.size());
+    assertTrue(renderedPayloads.stream()
+        .anyMatch(payload -> "John".equals(payload.getString("name"))));
+  }
+
+  @Test
+  @DisplayName("Expect templates from the directory rendered")
+  void expectDirectoryTemplatesRendered() throws URISyntaxException {
+    String directory = new File(getClass().getResource("/warmup/templates").toURI()).getPath();
+    WarmupOptions options = new WarmupOptions()
+        .setDirectory(directory)
+        .setIterations(2);
+
+    new TemplateWarmup(vertx, templateEngine, options).run()
+        .test().awaitDone(5, TimeUnit.SECONDS).assertComplete();
+
+    assertEquals(4, renderedPayloads.size());
+  }
+
+  @Test
+  @DisplayName("Expect samples that can not be read skipped and the others rendered")
+  void expectUnreadableSamplesSkipped() {
+    WarmupOptions options = new WarmupOptions()
+        .setManifest("warmup/partial-manifest.json")
+        .setIterations(2);
+
+    new TemplateWarmup(vertx, templateEngine, options).run()
+        .test().awaitDone(5, TimeUnit.SECONDS).assertComplete();
+
+    assertEquals(2, renderedPayloads.size());
+    assertTrue(renderedPayloads.stream()
+        .allMatch(payload -> "John".equals(payload.getString("name"))));
+  }
+
+  @Test
+  @DisplayName("Expect warmup failed when the manifest does not exist")
+  void expectMissingManifestFailure() {
+    WarmupOptions options = new WarmupOptions().setManifest("warmup/missing.json");
+
+    new TemplateWarmup(vertx, templateEngine, options).run()
+        .test().awaitDone(5, TimeUnit.SECONDS).assertError(Throwable.class);
+  }
+
+  @Test
+  @DisplayName("Expect warmup completed immediately when no templates are defined")
+  void expectNoWarmupByDefault() {
+    new TemplateWarmup(vertx, templateEngine, new WarmupOptions()).run()
+        .test().assertComplete();
+
+    assertTrue(renderedPayloads.isEmpty());
+  }
+
+}
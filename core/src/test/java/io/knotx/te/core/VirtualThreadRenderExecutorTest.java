@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.reactivex.Single;
+import io.vertx.reactivex.core.Vertx;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadRenderExecutorTest {
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  @DisplayName("Expect task processed on a virtual thread")
+  void expectTaskProcessedOnVirtualThread() {
+    assumeTrue(virtualThreadsSupported());
+    RenderExecutor executor = new VirtualThreadRenderExecutor(vertx, new VirtualThreadOptions());
+
+    String threadClass = executor
+        .execute(Single.fromCallable(() -> Thread.currentThread().getClass().getName()))
+        .blockingGet();
+
+    assertTrue(threadClass.contains("VirtualThread"), threadClass);
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("Expect concurrent tasks limited by max concurrency")
+  void expectConcurrencyLimited() {
+    assumeTrue(virtualThreadsSupported());
+    RenderExecutor executor = new VirtualThreadRenderExecutor(vertx,
+        new VirtualThreadOptions().setMaxConcurrency(2));
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    List<Single<Integer>> tasks = IntStream.range(0, 20)
+        .mapToObj(i -> executor.execute(Single.fromCallable(() -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          TimeUnit.MILLISECONDS.sleep(5);
+          running.decrementAndGet();
+          return i;
+        })))
+        .collect(Collectors.toList());
+    Single.merge(tasks).test().awaitDone(10, TimeUnit.SECONDS).assertValueCount(20);
+
+    assertTrue(maxRunning.get() <= 2, "max running: " + maxRunning.get());
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("Expect task error propagated")
+  void expectTaskErrorPropagated() {
+    assumeTrue(virtualThreadsSupported());
+    RenderExecutor executor = new VirtualThreadRenderExecutor(vertx, new VirtualThreadOptions());
+    IllegalStateException error = new IllegalStateException("broken template");
+
+    executor.execute(Single.error(error))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertError(error);
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("Expect IllegalStateException when virtual threads are not supported by JDK")
+  void expectFailureOnOldJdk() {
+    assumeFalse(virtualThreadsSupported());
+
+    IllegalStateException error = assertThrows(IllegalStateException.class,
+        () -> new VirtualThreadRenderExecutor(vertx, new VirtualThreadOptions()));
+    assertTrue(error.getMessage().contains("JDK 21+"));
+  }
+
+  private static boolean virtualThreadsSupported() {
+    try {
+      ((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null)).shutdown();
+      return true;
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+}
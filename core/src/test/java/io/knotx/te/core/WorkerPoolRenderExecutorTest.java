@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class WorkerPoolRenderExecutorTest {
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  @DisplayName("Expect task processed on a thread from the configured worker pool")
+  void expectTaskProcessedOnWorkerPool() {
+    WorkerPoolOptions options = new WorkerPoolOptions().setName("te-test-pool").setPoolSize(2);
+    RenderExecutor executor = new WorkerPoolRenderExecutor(vertx, options);
+
+    String threadName = executor
+        .execute(Single.fromCallable(() -> Thread.currentThread().getName()))
+        .blockingGet();
+
+    assertTrue(threadName.startsWith("te-test-pool"), threadName);
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("Expect task error propagated by the worker pool")
+  void expectTaskErrorPropagated() {
+    RenderExecutor executor = new WorkerPoolRenderExecutor(vertx, new WorkerPoolOptions());
+    IllegalStateException error = new IllegalStateException("broken template");
+
+    executor.execute(Single.error(error))
+        .test()
+        .awaitDone(5, TimeUnit.SECONDS)
+        .assertError(error);
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("Expect worker pool mode read from JSON configuration")
+  void expectWorkerPoolModeFromJson() {
+    TemplateEngineKnotOptions options = new TemplateEngineKnotOptions(
+        new JsonObject()
+            .put("executionMode", "WORKER_POOL")
+            .put("workerPool", new JsonObject().put("poolSize", 4)));
+
+    assertEquals(ExecutionMode.WORKER_POOL, options.getExecutionMode());
+    assertEquals(4, options.getWorkerPool().getPoolSize());
+    assertEquals(WorkerPoolOptions.DEFAULT_NAME, options.getWorkerPool().getName());
+  }
+}
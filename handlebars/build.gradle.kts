@@ -28,11 +28,11 @@ plugins {
 dependencies {
   implementation(platform("io.knotx:knotx-dependencies:${project.version}"))
   api(project(":knotx-template-engine-api"))
+  implementation(project(":knotx-template-engine-common"))
 
   implementation(group = "io.vertx", name = "vertx-core")
   implementation(group = "io.vertx", name = "vertx-service-proxy")
   implementation(group = "io.vertx", name = "vertx-rx-java2")
-  implementation(group = "com.google.guava", name = "guava")
   implementation(group = "com.github.jknack", name= "handlebars", version = "4.1.2")
 
   testImplementation("io.knotx:knotx-junit5:${project.version}")
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.handlebars;
+
+import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.Options;
+import com.github.jknack.handlebars.helper.EachHelper;
+import io.knotx.te.common.budget.RenderBudget;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * The built-in {@code each} helper reporting every iteration over an {@link Iterable} to the active
+ * {@link RenderBudget}, so a loop over a huge array is stopped even when it writes little output.
+ */
+class BudgetedEachHelper implements Helper<Object> {
+
+  static final Helper<Object> INSTANCE = new BudgetedEachHelper();
+
+  @Override
+  public Object apply(Object context, Options options) throws IOException {
+    RenderBudget budget = RenderBudget.active();
+    if (budget != null && context instanceof Iterable) {
+      return EachHelper.INSTANCE.apply(new BudgetedIterable((Iterable<?>) context, budget), options);
+    }
+    return EachHelper.INSTANCE.apply(context, options);
+  }
+
+  private static final class BudgetedIterable implements Iterable<Object> {
+
+    private final Iterable<?> delegate;
+    private final RenderBudget budget;
+
+    private BudgetedIterable(Iterable<?> delegate, RenderBudget budget) {
+      this.delegate = delegate;
+      this.budget = budget;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+      Iterator<?> iterator = delegate.iterator();
+      return new Iterator<Object>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          budget.iterate();
+          return iterator.next();
+        }
+      };
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.knotx.te.handlebars;
 
+import io.knotx.te.common.cache.TemplateCacheOptions;
 import io.vertx.codegen.annotations.DataObject;
 import io.vertx.core.json.JsonObject;
 
@@ -24,16 +25,19 @@ import io.vertx.core.json.JsonObject;
 @DataObject(generateConverter = true, publicConverter = false)
 public class HandlebarsEngineOptions {
 
-  private static final String DEFAULT_CACHE_KEY_ALGORITHM = "MD5";
+  private static final String DEFAULT_CACHE_KEY_ALGORITHM = "MURMUR3_128";
 
   private static final String DEFAULT_START_DELIMITER = "{{";
 
   private static final String DEFAULT_END_DELIMITER = "}}";
 
   private String cacheKeyAlgorithm;
+  private boolean cacheKeyVerification;
   private Long cacheSize;
+  private TemplateCacheOptions cache;
   private String startDelimiter;
   private String endDelimiter;
+  private boolean payloadPruning;
 
   public HandlebarsEngineOptions() {
     init();
@@ -41,9 +45,12 @@ public class HandlebarsEngineOptions {
 
   public HandlebarsEngineOptions(HandlebarsEngineOptions other) {
     this.cacheKeyAlgorithm = other.cacheKeyAlgorithm;
+    this.cacheKeyVerification = other.cacheKeyVerification;
     this.cacheSize = other.cacheSize;
+    this.cache = new TemplateCacheOptions(other.cache);
     this.startDelimiter = other.startDelimiter;
     this.endDelimiter = other.endDelimiter;
+    this.payloadPruning = other.payloadPruning;
   }
 
   public HandlebarsEngineOptions(JsonObject json) {
@@ -59,10 +66,30 @@ public class HandlebarsEngineOptions {
 
   private void init() {
     cacheKeyAlgorithm = DEFAULT_CACHE_KEY_ALGORITHM;
+    cache = new TemplateCacheOptions();
     startDelimiter = DEFAULT_START_DELIMITER;
     endDelimiter = DEFAULT_END_DELIMITER;
   }
 
+  /**
+   * @return compiled templates cache options
+   */
+  public TemplateCacheOptions getCache() {
+    return cache;
+  }
+
+  /**
+   * Sets the compiled templates cache options, such as the maximum size or weight, expiration,
+   * refresh and statistics recording.
+   *
+   * @param cache the compiled templates cache options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HandlebarsEngineOptions setCache(TemplateCacheOptions cache) {
+    this.cache = cache;
+    return this;
+  }
+
   /**
    * @return size of the cache
    */
@@ -71,8 +98,8 @@ public class HandlebarsEngineOptions {
   }
 
   /**
-   * Sets the size of the cache. After reaching the max size, new elements will replace the oldest
-   * one.
+   * Sets the size of the cache. It is kept for backward compatibility and is equivalent to
+   * {@code cache.maximumSize}, which takes precedence when set.
    *
    * @param cacheSize size of the cache
    * @return a reference to this, so the API can be used fluently
@@ -93,7 +120,8 @@ public class HandlebarsEngineOptions {
    * Sets the algorithm used to build a hash from the handlebars snippet. The hash is to be used as
    * a cache key.
    *
-   * The name should be a standard Java Security name (such as "SHA", "MD5", and so on).
+   * The default is {@code MURMUR3_128}, a fast non-cryptographic 128-bit hash. Any other name
+   * should be a standard Java Security name (such as "SHA", "MD5", and so on).
    *
    * @param cacheKeyAlgorithm algorithm name
    * @return a reference to this, so the API can be used fluently
@@ -103,6 +131,25 @@ public class HandlebarsEngineOptions {
     return this;
   }
 
+  /**
+   * @return flag indicating whether the source of a cached template is compared with the snippet
+   */
+  public boolean isCacheKeyVerification() {
+    return cacheKeyVerification;
+  }
+
+  /**
+   * Sets whether the source of a template found in the cache is compared with the handlebars
+   * snippet, so a hash collision never renders a wrong template. Default is {@code false}.
+   *
+   * @param cacheKeyVerification flag indicating whether cached template source is verified
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HandlebarsEngineOptions setCacheKeyVerification(boolean cacheKeyVerification) {
+    this.cacheKeyVerification = cacheKeyVerification;
+    return this;
+  }
+
   public String getStartDelimiter() {
     return startDelimiter;
   }
@@ -135,4 +182,25 @@ public class HandlebarsEngineOptions {
     this.endDelimiter = endDelimiter;
     return this;
   }
+
+  /**
+   * @return flag indicating whether templates get only the payload values they reference
+   */
+  public boolean isPayloadPruning() {
+    return payloadPruning;
+  }
+
+  /**
+   * Sets whether templates are analysed at compile time to find the payload paths they reference,
+   * so that only those subtrees are passed to the template and used to identify cached outputs.
+   * Templates with partials or references to a whole context get the whole payload. Custom
+   * helpers reading the context directly see the pruned payload. Default is {@code false}.
+   *
+   * @param payloadPruning flag indicating whether the payload is pruned to referenced paths
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HandlebarsEngineOptions setPayloadPruning(boolean payloadPruning) {
+    this.payloadPruning = payloadPruning;
+    return this;
+  }
 }
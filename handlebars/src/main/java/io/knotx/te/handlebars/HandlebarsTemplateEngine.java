@@ -15,89 +15,142 @@
  */
 package io.knotx.te.handlebars;
 
-import com.github.jknack.handlebars.Context;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.github.jknack.handlebars.helper.EachHelper;
 import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.CompiledTemplate;
 import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.api.exception.TemplateCompilationException;
+import io.knotx.te.common.cache.TemplateCache;
+import io.knotx.te.common.cache.TemplateCacheOptions;
+import io.knotx.te.common.cache.TemplateKeyStrategy;
+import io.knotx.te.common.template.StaticTemplate;
+import io.knotx.te.common.template.StaticTemplateDetector;
+import io.knotx.te.common.template.TemplateVariables;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.Vertx;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.Writer;
 import java.util.ServiceLoader;
-import java.util.concurrent.ExecutionException;
 
 class HandlebarsTemplateEngine implements TemplateEngine {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(HandlebarsTemplateEngine.class);
 
-  private Handlebars handlebars;
-  private Cache<String, Template> cache;
-  private MessageDigest digest;
+  private final Handlebars handlebars;
+  private final TemplateCache<CompiledTemplate> cache;
+  private final StaticTemplateDetector staticTemplates;
+  private final HandlebarsVariablesAnalyzer variablesAnalyzer;
 
   HandlebarsTemplateEngine(Vertx vertx, HandlebarsEngineOptions options) {
     LOGGER.info("<{}> instance created", this.getClass().getSimpleName());
     this.handlebars = createHandlebars(options);
-    this.cache = CacheBuilder.newBuilder()
-        .maximumSize(options.getCacheSize())
-        .removalListener(listener -> LOGGER.warn(
-            "Cache limit exceeded. Revisit 'cacheSize' setting"))
-        .build();
-    try {
-      this.digest = MessageDigest.getInstance(options.getCacheKeyAlgorithm());
-    } catch (NoSuchAlgorithmException e) {
-      LOGGER.error("No such algorithm available {}.", options.getCacheKeyAlgorithm(), e);
-      throw new IllegalArgumentException(e);
-    }
+    this.variablesAnalyzer = options.isPayloadPruning()
+        ? new HandlebarsVariablesAnalyzer(options.getStartDelimiter()) : null;
+    this.cache = new TemplateCache<>(HandlebarsTemplateEngineFactory.NAME, cacheOptions(options),
+        keyStrategy(options), options.isCacheKeyVerification(), this::compileTemplate);
+    this.staticTemplates = new StaticTemplateDetector(HandlebarsTemplateEngineFactory.NAME,
+        options.getStartDelimiter());
   }
 
   @Override
   public String process(Fragment fragment) {
-    Template template = template(fragment);
+    CompiledTemplate template = template(fragment);
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("Processing with handlebars: {}!", fragment);
     }
     try {
-      return template.apply(
-          Context.newBuilder(fragment.getPayload())
-              .push(JsonObjectValueResolver.INSTANCE)
-              .build());
+      return renderToString(template, fragment.getPayload());
     } catch (IOException e) {
       LOGGER.error("Could not apply context to fragment [{}]", fragment.abbreviate(), e);
       throw new IllegalStateException(e);
     }
   }
 
-  private Template template(Fragment fragment) {
+  @Override
+  public void process(Fragment fragment, Writer writer) throws IOException {
+    CompiledTemplate template = template(fragment);
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Processing with handlebars: {}!", fragment);
+    }
+    template.render(fragment.getPayload(), writer);
+  }
+
+  @Override
+  public CompiledTemplate compile(String body) {
+    try {
+      return cache.get(body);
+    } catch (TemplateCompilationException e) {
+      LOGGER.error("Could not compile template", e);
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    cache.close();
+    staticTemplates.close();
+  }
+
+  private CompiledTemplate template(Fragment fragment) {
     try {
-      String cacheKey = getCacheKey(fragment);
-
-      return cache.get(cacheKey, () -> {
-        if (LOGGER.isTraceEnabled()) {
-          LOGGER.trace("Compiled Handlebars fragment [{}]", fragment);
-        }
-        return handlebars.compileInline(fragment.getBody());
-      });
-    } catch (ExecutionException e) {
+      return cache.get(fragment.getBody());
+    } catch (TemplateCompilationException e) {
       LOGGER.error("Could not compile fragment [{}]", fragment.abbreviate(), e);
-      throw new IllegalStateException(e);
+      throw e;
+    }
+  }
+
+  private CompiledTemplate compileTemplate(String body) throws IOException {
+    // static templates are detected once, when they are cached
+    StaticTemplate staticTemplate = staticTemplates.staticTemplateOf(body);
+    if (staticTemplate != null) {
+      return staticTemplate;
+    }
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Compiled Handlebars template [{}]", body);
+    }
+    Template template = handlebars.compileInline(body);
+    TemplateVariables variables = variablesAnalyzer == null
+        ? TemplateVariables.all() : variablesAnalyzer.analyze(template, body);
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Handlebars template references {}", variables);
     }
+    return new HandlebarsCompiledTemplate(template, variables);
   }
 
-  private String getCacheKey(Fragment fragment) {
-    byte[] cacheKeyBytes = digest.digest(fragment.getBody().getBytes(StandardCharsets.UTF_8));
-    return new String(cacheKeyBytes);
+  private static String renderToString(CompiledTemplate template, JsonObject payload)
+      throws IOException {
+    return template instanceof HandlebarsCompiledTemplate
+        ? ((HandlebarsCompiledTemplate) template).renderToString(payload)
+        : template.render(payload);
+  }
+
+  private TemplateCacheOptions cacheOptions(HandlebarsEngineOptions options) {
+    TemplateCacheOptions cacheOptions = new TemplateCacheOptions(options.getCache());
+    if (cacheOptions.getMaximumSize() == null) {
+      cacheOptions.setMaximumSize(options.getCacheSize());
+    }
+    return cacheOptions;
+  }
+
+  private TemplateKeyStrategy keyStrategy(HandlebarsEngineOptions options) {
+    try {
+      return TemplateKeyStrategy.forAlgorithm(options.getCacheKeyAlgorithm());
+    } catch (IllegalArgumentException e) {
+      LOGGER.error("No such algorithm available {}.", options.getCacheKeyAlgorithm(), e);
+      throw e;
+    }
   }
 
   private Handlebars createHandlebars(HandlebarsEngineOptions options) {
     Handlebars newHandlebars = new Handlebars();
     newHandlebars.setStartDelimiter(options.getStartDelimiter());
     newHandlebars.setEndDelimiter(options.getEndDelimiter());
+    newHandlebars.registerHelper(EachHelper.NAME, BudgetedEachHelper.INSTANCE);
     ServiceLoader.load(CustomHandlebarsHelper.class)
         .iterator().forEachRemaining(helper -> {
       newHandlebars.registerHelper(helper.getName(), helper);
@@ -22,9 +22,11 @@ import io.vertx.reactivex.core.Vertx;
 
 public class HandlebarsTemplateEngineFactory implements TemplateEngineFactory {
 
+  static final String NAME = "handlebars";
+
   @Override
   public String getName() {
-    return "handlebars";
+    return NAME;
   }
 
   @Override
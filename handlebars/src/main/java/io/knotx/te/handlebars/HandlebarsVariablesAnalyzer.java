@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.handlebars;
+
+import com.github.jknack.handlebars.TagType;
+import com.github.jknack.handlebars.Template;
+import io.knotx.te.common.template.TemplateVariables;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Finds payload paths referenced by a Handlebars template: variables, sections and helper
+ * parameters. Names are resolved against the payload root. Names relative to a block context only
+ * add paths that may not exist, which is harmless, while references to a whole context ({@code
+ * this}, {@code .}, {@code @root}) and partials reference the whole payload.
+ */
+final class HandlebarsVariablesAnalyzer {
+
+  private static final String THIS = "this";
+  private static final String ROOT = "@root";
+
+  private final Pattern partial;
+
+  HandlebarsVariablesAnalyzer(String startDelimiter) {
+    this.partial = Pattern.compile(Pattern.quote(startDelimiter) + "~?#?\\s*>");
+  }
+
+  TemplateVariables analyze(Template template, String source) {
+    if (partial.matcher(source).find()) {
+      return TemplateVariables.all();
+    }
+    List<String> names = new ArrayList<>(template.collect(TagType.values()));
+    names.addAll(template.collectReferenceParameters());
+    List<List<String>> paths = new ArrayList<>(names.size());
+    for (String name : names) {
+      List<String> path = pathOf(name);
+      if (path.isEmpty()) {
+        return TemplateVariables.all();
+      }
+      if (!path.get(0).startsWith("@")) {
+        paths.add(path);
+      }
+    }
+    return TemplateVariables.of(paths);
+  }
+
+  private static List<String> pathOf(String name) {
+    List<String> segments = new ArrayList<>();
+    int i = 0;
+    while (i < name.length()) {
+      char c = name.charAt(i);
+      if (c == '.' || c == '/') {
+        i++;
+      } else if (c == '[') {
+        int end = name.indexOf(']', i);
+        end = end < 0 ? name.length() : end;
+        segments.add(name.substring(i + 1, end));
+        i = end + 1;
+      } else {
+        int end = i;
+        while (end < name.length() && name.charAt(end) != '.' && name.charAt(end) != '/') {
+          end++;
+        }
+        segments.add(name.substring(i, end));
+        i = end;
+      }
+    }
+    return normalize(segments);
+  }
+
+  private static List<String> normalize(List<String> segments) {
+    int start = 0;
+    while (start < segments.size() && isContextReference(segments.get(start))) {
+      start++;
+    }
+    return start == 0 ? segments : Collections.unmodifiableList(
+        new ArrayList<>(segments.subList(start, segments.size())));
+  }
+
+  private static boolean isContextReference(String segment) {
+    return THIS.equals(segment) || ROOT.equals(segment);
+  }
+}
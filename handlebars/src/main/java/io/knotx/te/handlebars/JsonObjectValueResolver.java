@@ -16,13 +16,23 @@
 package io.knotx.te.handlebars;
 
 import com.github.jknack.handlebars.ValueResolver;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * A {@link JsonObject} value resolver.
+ * A {@link JsonObject} and {@link JsonArray} value resolver. Values are read from the underlying
+ * map or list directly, and array elements are resolved by index, both for {@code items.[0]} and
+ * {@code items.0} path segments. Nested maps and lists are exposed as {@link JsonObject} and {@link
+ * JsonArray}. Register it before the default resolvers (see {@link #RESOLVERS}), so JSON lookups
+ * never fall back to reflection and payload keys such as {@code map} or {@code empty} are not
+ * shadowed by {@link JsonObject} getters.
  */
 public enum JsonObjectValueResolver implements ValueResolver {
   /**
@@ -30,24 +40,104 @@ public enum JsonObjectValueResolver implements ValueResolver {
    */
   INSTANCE;
 
+  /**
+   * This resolver followed by the Handlebars default resolvers.
+   */
+  static final ValueResolver[] RESOLVERS = resolvers();
+
   @SuppressWarnings({"rawtypes", "unchecked"})
   @Override
   public Object resolve(Object context, String name) {
     Object value = null;
     if (context instanceof JsonObject) {
-      value = ((JsonObject) context).getValue(name);
+      value = wrap(((JsonObject) context).getMap().get(name));
+    } else if (context instanceof JsonArray) {
+      List list = ((JsonArray) context).getList();
+      int index = indexOf(name);
+      if (index >= 0 && index < list.size()) {
+        value = wrap(list.get(index));
+      }
     }
     return value == null ? UNRESOLVED : value;
   }
 
   @Override
   public Object resolve(final Object context) {
-    return context instanceof JsonObject ? context : UNRESOLVED;
+    return context instanceof JsonObject || context instanceof JsonArray ? context : UNRESOLVED;
   }
 
-  @SuppressWarnings({"unchecked", "rawtypes"})
   @Override
   public Set<Map.Entry<String, Object>> propertySet(final Object context) {
-    return context instanceof JsonObject ? ((JsonObject) context).getMap().entrySet() : Collections.emptySet();
+    return context instanceof JsonObject ? new PropertySet(((JsonObject) context).getMap())
+        : Collections.emptySet();
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static Object wrap(Object value) {
+    if (value instanceof Map) {
+      return new JsonObject((Map) value);
+    } else if (value instanceof List) {
+      return new JsonArray((List) value);
+    }
+    return value;
+  }
+
+  private static int indexOf(String name) {
+    int start = 0;
+    int end = name.length();
+    if (end > 2 && name.charAt(0) == '[' && name.charAt(end - 1) == ']') {
+      start = 1;
+      end--;
+    }
+    if (start == end || end - start > 9) {
+      return -1;
+    }
+    int index = 0;
+    for (int i = start; i < end; i++) {
+      char c = name.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      index = index * 10 + (c - '0');
+    }
+    return index;
+  }
+
+  private static ValueResolver[] resolvers() {
+    ValueResolver[] resolvers = new ValueResolver[VALUE_RESOLVERS.length + 1];
+    resolvers[0] = INSTANCE;
+    System.arraycopy(VALUE_RESOLVERS, 0, resolvers, 1, VALUE_RESOLVERS.length);
+    return resolvers;
+  }
+
+  private static final class PropertySet extends AbstractSet<Map.Entry<String, Object>> {
+
+    private final Map<String, Object> map;
+
+    private PropertySet(Map<String, Object> map) {
+      this.map = map;
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, Object>> iterator() {
+      Iterator<Map.Entry<String, Object>> entries = map.entrySet().iterator();
+      return new Iterator<Map.Entry<String, Object>>() {
+        @Override
+        public boolean hasNext() {
+          return entries.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+          Map.Entry<String, Object> entry = entries.next();
+          return new SimpleImmutableEntry<>(entry.getKey(), wrap(entry.getValue()));
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
   }
 }
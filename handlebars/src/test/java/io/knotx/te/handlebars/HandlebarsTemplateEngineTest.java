@@ -16,13 +16,26 @@
 package io.knotx.te.handlebars;
 
 import static io.knotx.junit5.assertions.KnotxAssertions.assertEqualsIgnoreWhitespace;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import io.knotx.fragments.api.Fragment;
 import io.knotx.junit5.util.FileReader;
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.common.budget.RenderBudget;
+import io.knotx.te.common.budget.RenderLimitExceededException;
+import io.knotx.te.common.budget.RenderTimeoutException;
+import io.knotx.te.common.template.StaticTemplate;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.reactivex.core.Vertx;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -63,6 +76,19 @@ class HandlebarsTemplateEngineTest {
     assertEqualsIgnoreWhitespace(expected, result);
   }
 
+  @Test
+  void process_whenMessageDigestCacheKeyAndVerification_expectMarkup() throws IOException {
+    options.setCacheKeyAlgorithm("MD5").setCacheKeyVerification(true);
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+
+    final Fragment fragment = mockFragmentFromFile("templates/simple.hbs",
+        "data/sampleContext.json");
+    templateEngine.process(fragment);
+    final String result = templateEngine.process(fragment).trim();
+    final String expected = FileReader.readText("results/simple").trim();
+    assertEqualsIgnoreWhitespace(expected, result);
+  }
+
   @Test
   void process_whenEmptyContext_expectMarkup() throws IOException {
     final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
@@ -93,6 +119,115 @@ class HandlebarsTemplateEngineTest {
     assertEqualsIgnoreWhitespace(expected, result);
   }
 
+  @Test
+  void process_whenWriterGiven_expectMarkupStreamed() throws IOException {
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+    final Fragment fragment = mockFragmentFromFile("templates/simple.hbs",
+        "data/sampleContext.json");
+    final StringWriter writer = new StringWriter();
+    templateEngine.process(fragment, writer);
+    final String expected = FileReader.readText("results/simple").trim();
+    assertEqualsIgnoreWhitespace(expected, writer.toString().trim());
+  }
+
+  @Test
+  void processToBuffer_whenDefaultOptions_expectUtf8Markup() throws IOException {
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+    final Fragment fragment = mockFragmentFromFile("templates/simple.hbs",
+        "data/sampleContext.json");
+    final String result = templateEngine.processToBuffer(fragment).toString(StandardCharsets.UTF_8.name());
+    assertEquals(templateEngine.process(fragment), result);
+  }
+
+  @Test
+  void compile_whenRenderedManyTimes_expectMarkup() throws IOException {
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+    final CompiledTemplate template = templateEngine
+        .compile(FileReader.readText("templates/simple.hbs").trim());
+    final JsonObject payload = new JsonObject(FileReader.readText("data/sampleContext.json"));
+    final String expected = FileReader.readText("results/simple").trim();
+
+    assertEqualsIgnoreWhitespace(expected, template.render(payload).trim());
+    assertEqualsIgnoreWhitespace(expected, template.render(payload).trim());
+  }
+
+  @Test
+  void process_whenStaticTemplate_expectBodyReturned() {
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+    final Fragment fragment = Mockito.mock(Fragment.class);
+    when(fragment.getBody()).thenReturn("<p>{ static } content</p>");
+    when(fragment.getPayload()).thenReturn(new JsonObject().put("name", "John"));
+
+    assertEquals("<p>{ static } content</p>", templateEngine.process(fragment));
+    assertEquals("<p>{ static } content</p>",
+        templateEngine.compile(fragment.getBody()).render(fragment.getPayload()));
+    assertTrue(templateEngine.compile(fragment.getBody()) instanceof StaticTemplate);
+    assertSame(templateEngine.compile(fragment.getBody()),
+        templateEngine.compile(fragment.getBody()));
+  }
+
+  @Test
+  void compile_whenPayloadPruning_expectOnlyReferencedValuesUsed() {
+    options.setPayloadPruning(true);
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+    final CompiledTemplate template = templateEngine
+        .compile("{{user.name}} has {{#each items}}{{price}} {{/each}}");
+    final JsonObject payload = new JsonObject()
+        .put("user", new JsonObject().put("name", "John").put("age", 30))
+        .put("items", new JsonArray().add(new JsonObject().put("price", 10)))
+        .put("unused", "value");
+
+    assertEquals("John has 10 ", template.render(payload));
+    assertEquals(new JsonObject()
+            .put("user", new JsonObject().put("name", "John"))
+            .put("items", payload.getJsonArray("items")),
+        template.prune(payload));
+  }
+
+  @Test
+  void render_whenRenderBudgetExceededInLoop_expectRenderStopped() {
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+    final CompiledTemplate template = templateEngine.compile("{{#each items}}{{/each}}");
+    final JsonArray items = new JsonArray();
+    IntStream.range(0, 1000).forEach(items::add);
+    final JsonObject payload = new JsonObject().put("items", items);
+
+    try (RenderBudget.Scope scope = RenderBudget.start().setTimeout(0).activate()) {
+      final RuntimeException error = assertThrows(RuntimeException.class,
+          () -> template.render(payload));
+      assertTrue(isCausedBy(error, RenderTimeoutException.class));
+    }
+    assertEquals("", template.render(payload));
+  }
+
+  @Test
+  void render_whenMaxIterationsExceededInNestedLoops_expectRenderStopped() {
+    final HandlebarsTemplateEngine templateEngine = new HandlebarsTemplateEngine(vertx, options);
+    final CompiledTemplate template = templateEngine
+        .compile("{{#each rows}}{{#each this}}{{this}}{{/each}}{{/each}}");
+    final JsonArray row = new JsonArray().add(1).add(2).add(3);
+    final JsonObject payload = new JsonObject()
+        .put("rows", new JsonArray().add(row).add(row).add(row));
+
+    try (RenderBudget.Scope scope = RenderBudget.start().setMaxIterations(11).activate()) {
+      final RuntimeException error = assertThrows(RuntimeException.class,
+          () -> template.render(payload));
+      assertTrue(isCausedBy(error, RenderLimitExceededException.class));
+    }
+    try (RenderBudget.Scope scope = RenderBudget.start().setMaxIterations(12).activate()) {
+      assertEquals("123123123", template.render(payload));
+    }
+  }
+
+  private static boolean isCausedBy(Throwable error, Class<? extends Throwable> type) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (type.isInstance(cause)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Fragment mockFragmentFromFile(String bodyFilePath, String contextFilePath)
       throws IOException {
     final String body = FileReader.readText(bodyFilePath).trim();
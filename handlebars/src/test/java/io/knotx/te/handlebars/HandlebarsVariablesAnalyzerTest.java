@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.handlebars;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jknack.handlebars.Handlebars;
+import io.knotx.te.common.template.TemplateVariables;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HandlebarsVariablesAnalyzerTest {
+
+  private final Handlebars handlebars = new Handlebars();
+  private final HandlebarsVariablesAnalyzer analyzer = new HandlebarsVariablesAnalyzer("{{");
+
+  @Test
+  @DisplayName("Expect variables, sections and helper parameters found")
+  void expectReferencedPathsFound() throws IOException {
+    TemplateVariables variables = analyze(
+        "{{user.name}}{{#each _result.items}}{{price}} {{@index}}{{/each}}"
+            + "{{#if flag}}{{user/address/city}}{{/if}}{{lookup map key}}");
+
+    assertEquals(new HashSet<>(Arrays.asList("user.name", "user.address.city", "_result.items",
+        "price", "flag", "map", "key", "each", "if", "lookup")), variables.getPaths());
+  }
+
+  @Test
+  @DisplayName("Expect this, parent and root prefixes resolved against the payload root")
+  void expectContextPrefixesStripped() throws IOException {
+    TemplateVariables variables = analyze(
+        "{{#with user}}{{this.name}}{{../title}}{{@root.footer}}{{items.[0].price}}{{/with}}");
+
+    assertEquals(new HashSet<>(Arrays.asList("user", "name", "title", "footer", "items.0.price",
+        "with")), variables.getPaths());
+  }
+
+  @Test
+  @DisplayName("Expect whole payload referenced by this, dot and partials")
+  void expectWholePayloadReferenced() throws IOException {
+    assertTrue(analyze("{{#each items}}{{this}}{{/each}}").isAll());
+    assertTrue(analyze("{{.}}").isAll());
+    assertTrue(analyze("{{@root}}").isAll());
+    assertTrue(analyze("{{> header}}").isAll());
+  }
+
+  private TemplateVariables analyze(String source) throws IOException {
+    return analyzer.analyze(handlebars.compileInline(source), source);
+  }
+
+}
@@ -16,12 +16,16 @@
 package io.knotx.te.handlebars;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.github.jknack.handlebars.Context;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
 import io.knotx.junit5.util.FileReader;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -49,5 +53,55 @@ class JsonObjectValueResolverTest {
     assertEquals(expected, compiled);
   }
 
+  @Test
+  void JsonObjectResolver_whenIndexedPath_expectArrayElementResolved() throws Exception {
+    final JsonObject payload = new JsonObject().put("_result", new JsonObject()
+        .put("items", new JsonArray()
+            .add(new JsonObject().put("price", 10))
+            .add(new JsonObject().put("price", 20))));
+
+    assertEquals("10|20|20|",
+        apply("{{_result.items.[0].price}}|{{_result.items.1.price}}|"
+            + "{{_result.items.[1].price}}|{{_result.items.[2].price}}", payload));
+  }
+
+  @Test
+  void JsonObjectResolver_whenKeyNamedAsJsonObjectGetter_expectPayloadValueResolved()
+      throws Exception {
+    final JsonObject payload = new JsonObject()
+        .put("map", new JsonObject().put("a", 1).put("b", 2))
+        .put("empty", "no");
+
+    assertEquals("1|2|no", apply("{{map.a}}|{{map.b}}|{{empty}}", payload));
+  }
+
+  @Test
+  void JsonObjectResolver_whenNestedPlainCollections_expectValuesResolved() throws Exception {
+    final JsonObject payload = new JsonObject()
+        .put("user", new JsonObject(Collections.singletonMap("tags",
+            Arrays.asList(Collections.singletonMap("name", "admin")))));
+
+    assertEquals("admin;admin", apply(
+        "{{user.tags.[0].name}};{{#each user.tags}}{{name}}{{/each}}", payload));
+  }
+
+  @Test
+  void JsonObjectResolver_whenThisIsNestedArray_expectArrayResolved() throws Exception {
+    final JsonArray row = new JsonArray().add(1).add(2);
+    final JsonObject payload = new JsonObject().put("matrix", new JsonArray()
+        .add(row)
+        .add(new JsonArray().add(3)));
+
+    assertSame(row, JsonObjectValueResolver.INSTANCE.resolve(row));
+    assertEquals("[[1,2]|1][[3]|3]",
+        apply("{{#each matrix}}[{{this}}|{{this.[0]}}]{{/each}}", payload));
+  }
+
+  private static String apply(String source, JsonObject payload) throws Exception {
+    return new Handlebars().compileInline(source).apply(Context.newBuilder(payload)
+        .resolver(JsonObjectValueResolver.RESOLVERS)
+        .build());
+  }
+
 
 }
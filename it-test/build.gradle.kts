@@ -33,6 +33,7 @@ dependencies {
   testImplementation(project(":knotx-template-engine-handlebars"))
 
   testImplementation("io.knotx:knotx-launcher:${project.version}")
+  testImplementation(group = "org.hdrhistogram", name = "HdrHistogram", version = "2.1.12")
 }
 
 sourceSets.named("test") {
@@ -40,8 +41,14 @@ sourceSets.named("test") {
 }
 
 tasks {
+  named<Test>("test") {
+    // pass load test settings (-Dknotx.te.load.*) to the test JVM
+    System.getProperties()
+        .filterKeys { it.toString().startsWith("knotx.te.load.") }
+        .forEach { (key, value) -> systemProperty(key.toString(), value) }
+  }
   named<RatTask>("rat") {
-    excludes.addAll(listOf("**/build/*", "**/out/*", "**/resources/*"))
+    excludes.addAll(listOf("*.md", "**/build/*", "**/out/*", "**/resources/*"))
   }
   getByName("build").dependsOn("rat")
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.test.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.reactivex.api.Knot;
+import io.knotx.junit5.util.FileReader;
+import io.knotx.server.api.context.ClientRequest;
+import io.knotx.te.core.LocalKnotProxy;
+import io.knotx.te.core.TemplateEngineKnot;
+import io.knotx.te.test.load.LoadTestOptions.MixEntry;
+import io.knotx.te.test.load.LoadTestOptions.Transport;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Deploys {@link TemplateEngineKnot} locally and drives it through the event bus. Enabled with
+ * {@code -Dknotx.te.load.enabled=true}, see {@link LoadTestOptions} for other settings.
+ */
+@EnabledIfSystemProperty(named = LoadTestOptions.PREFIX + "enabled", matches = "true")
+class EventBusLoadTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventBusLoadTest.class);
+
+  private static final long TIMEOUT_MINUTES = 30;
+  private static final String DISTRIBUTION_FILE = "build/reports/load-test/latency.hgrm";
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void setUp() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  @DisplayName("Report throughput and latency percentiles of fragments processed via event bus")
+  void runLoadTest() throws Exception {
+    LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+    LOGGER.info("Running load test with {}", options);
+    vertx.rxDeployVerticle(TemplateEngineKnot.class.getName(), new DeploymentOptions()
+        .setInstances(options.getInstances())
+        .setConfig(options.getKnotConfig()))
+        .blockingGet();
+
+    LoadGenerator generator = new LoadGenerator(knot(options), fragments(options.getMix()),
+        options.getConcurrency());
+    LoadResult warmup = generator
+        .run(options.getWarmupRequests(), TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    LOGGER.info("Warmup: {}", warmup.summary());
+    LoadResult result = generator.run(options.getRequests(), TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    LOGGER.info("Result: {}", result.summary());
+    writeDistribution(result);
+
+    assertEquals(0, result.getErrors());
+  }
+
+  private Knot knot(LoadTestOptions options) {
+    if (options.getTransport() == Transport.LOCAL) {
+      return Knot.newInstance(new LocalKnotProxy(vertx.getDelegate(), options.getLocalAddress()));
+    }
+    return Knot.createProxy(vertx, options.getAddress());
+  }
+
+  private static List<FragmentContext> fragments(List<MixEntry> mix) throws IOException {
+    List<FragmentContext> fragments = new ArrayList<>();
+    for (MixEntry entry : mix) {
+      FragmentContext fragmentContext = new FragmentContext(
+          fragment(entry.getSnippetPath(), entry.getPayloadPath()), new ClientRequest());
+      fragments.addAll(Collections.nCopies(entry.getWeight(), fragmentContext));
+    }
+    return fragments;
+  }
+
+  private static Fragment fragment(String snippetPath, String payloadPath) throws IOException {
+    Fragment fragment = new Fragment("snippet", new JsonObject(),
+        FileReader.readText(snippetPath));
+    fragment.mergeInPayload(new JsonObject(Collections
+        .singletonMap("_result", new JsonObject(FileReader.readText(payloadPath)))));
+    return fragment;
+  }
+
+  private static void writeDistribution(LoadResult result) throws IOException {
+    File file = new File(DISTRIBUTION_FILE);
+    if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+      throw new IOException("Could not create " + file.getParent());
+    }
+    try (PrintStream output = new PrintStream(file, "UTF-8")) {
+      result.writeDistribution(output);
+    }
+    LOGGER.info("Latency distribution written to {}", file.getAbsolutePath());
+  }
+
+}
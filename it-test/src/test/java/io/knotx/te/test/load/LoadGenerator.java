@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.test.load;
+
+import io.knotx.fragments.handler.api.domain.FragmentContext;
+import io.knotx.fragments.handler.api.domain.FragmentResult;
+import io.knotx.fragments.handler.reactivex.api.Knot;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Sends fragments to the Knot with a fixed number of requests in flight (a closed loop) and records
+ * the latency of each request, and the bytes allocated by all JVM threads during the run.
+ */
+class LoadGenerator {
+
+  private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(1);
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final Knot knot;
+  private final List<FragmentContext> fragments;
+  private final int concurrency;
+
+  /**
+   * @param knot Knot proxy
+   * @param fragments fragments sent in a round robin, repeated according to their weights
+   * @param concurrency number of requests in flight
+   */
+  LoadGenerator(Knot knot, List<FragmentContext> fragments, int concurrency) {
+    this.knot = knot;
+    this.fragments = fragments;
+    this.concurrency = concurrency;
+  }
+
+  LoadResult run(int requests, long timeout, TimeUnit unit) throws InterruptedException {
+    Run run = new Run(requests);
+    long allocatedBefore = allocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < Math.min(concurrency, requests); i++) {
+      run.sendNext();
+    }
+    if (!run.done.await(timeout, unit)) {
+      throw new IllegalStateException("Load test did not complete in " + timeout + " " + unit);
+    }
+    long duration = System.nanoTime() - start;
+    return new LoadResult(run.histogram, requests, run.errors.get(), duration,
+        allocatedBytes() - allocatedBefore);
+  }
+
+  /**
+   * @return bytes allocated so far by live threads, -1 when the JVM does not measure allocations
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return -1L;
+    }
+    // HotSpot extension measuring allocations per thread
+    com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+    if (!allocations.isThreadAllocatedMemoryEnabled()) {
+      return -1L;
+    }
+    long allocated = 0L;
+    for (long bytes : allocations.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+      allocated += Math.max(bytes, 0L);
+    }
+    return allocated;
+  }
+
+  private class Run {
+
+    private final int requests;
+    private final Histogram histogram;
+    private final AtomicInteger sent;
+    private final AtomicInteger errors;
+    private final CountDownLatch done;
+
+    private Run(int requests) {
+      this.requests = requests;
+      this.histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+      this.sent = new AtomicInteger();
+      this.errors = new AtomicInteger();
+      this.done = new CountDownLatch(requests);
+    }
+
+    private void sendNext() {
+      int index = sent.getAndIncrement();
+      if (index >= requests) {
+        return;
+      }
+      FragmentContext fragmentContext = fragments.get(index % fragments.size());
+      long start = System.nanoTime();
+      knot.rxApply(fragmentContext).subscribe(
+          result -> complete(start, FragmentResult.SUCCESS_TRANSITION.equals(result.getTransition())),
+          error -> complete(start, false));
+    }
+
+    private void complete(long start, boolean success) {
+      histogram.recordValue(Math.min(System.nanoTime() - start, HIGHEST_TRACKABLE_LATENCY));
+      if (!success) {
+        errors.incrementAndGet();
+      }
+      done.countDown();
+      sendNext();
+    }
+  }
+
+}
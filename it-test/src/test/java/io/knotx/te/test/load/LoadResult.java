@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.test.load;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Throughput, latency percentiles and allocations of a load test run.
+ */
+class LoadResult {
+
+  private static final double NANOS_IN_MICRO = 1000.0;
+  private static final double BYTES_IN_KB = 1024.0;
+
+  private final Histogram histogram;
+  private final int requests;
+  private final int errors;
+  private final long durationNanos;
+  private final long allocatedBytes;
+
+  LoadResult(Histogram histogram, int requests, int errors, long durationNanos,
+      long allocatedBytes) {
+    this.histogram = histogram;
+    this.requests = requests;
+    this.errors = errors;
+    this.durationNanos = durationNanos;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  int getErrors() {
+    return errors;
+  }
+
+  double getThroughput() {
+    return requests / (durationNanos / (double) TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /**
+   * @return bytes allocated per request by all threads, negative when allocations are not measured
+   */
+  double getAllocatedBytesPerRequest() {
+    return allocatedBytes < 0 ? -1.0 : allocatedBytes / (double) requests;
+  }
+
+  String summary() {
+    return String.format("requests=%d, errors=%d, throughput=%.1f req/s, allocated=%.1f KB/req, "
+            + "latency [us]: p50=%.1f, p90=%.1f, p99=%.1f, p999=%.1f, max=%.1f",
+        requests, errors, getThroughput(), getAllocatedBytesPerRequest() / BYTES_IN_KB,
+        percentile(50.0), percentile(90.0), percentile(99.0), percentile(99.9),
+        histogram.getMaxValue() / NANOS_IN_MICRO);
+  }
+
+  /**
+   * Writes the full latency distribution (in microseconds) in the HdrHistogram percentile format,
+   * which may be plotted with the HdrHistogram plotter.
+   */
+  void writeDistribution(PrintStream output) {
+    histogram.outputPercentileDistribution(output, NANOS_IN_MICRO);
+  }
+
+  private double percentile(double percentile) {
+    return histogram.getValueAtPercentile(percentile) / NANOS_IN_MICRO;
+  }
+
+}
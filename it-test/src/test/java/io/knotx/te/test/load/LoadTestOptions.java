@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.test.load;
+
+import io.knotx.te.core.TemplateEngineKnotOptions;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test settings read from {@code knotx.te.load.*} system properties.
+ */
+class LoadTestOptions {
+
+  static final String PREFIX = "knotx.te.load.";
+
+  private static final String DEFAULT_MIX = "snippet/simple-handlebars.txt|data/simple.json|1";
+  private static final String LOCAL_ADDRESS_SUFFIX = ".local";
+
+  private final int concurrency;
+  private final int requests;
+  private final int warmupRequests;
+  private final int instances;
+  private final List<MixEntry> mix;
+  private final JsonObject knotConfig;
+  private final Transport transport;
+
+  private LoadTestOptions(int concurrency, int requests, int warmupRequests, int instances,
+      List<MixEntry> mix, JsonObject knotConfig, Transport transport) {
+    this.concurrency = concurrency;
+    this.requests = requests;
+    this.warmupRequests = warmupRequests;
+    this.instances = instances;
+    this.mix = mix;
+    this.knotConfig = knotConfig;
+    this.transport = transport;
+  }
+
+  static LoadTestOptions fromSystemProperties() {
+    JsonObject knotConfig = new JsonObject()
+        .put("address", TemplateEngineKnotOptions.DEFAULT_EB_ADDRESS)
+        .put("engine", new JsonObject().put("factory", "handlebars"))
+        .mergeIn(new JsonObject(System.getProperty(PREFIX + "knotConfig", "{}")), true);
+    Transport transport = Transport.valueOf(System.getProperty(PREFIX + "transport", "PROXY"));
+    if (transport == Transport.LOCAL && !knotConfig.containsKey("localAddress")) {
+      knotConfig.put("localAddress", knotConfig.getString("address") + LOCAL_ADDRESS_SUFFIX);
+    }
+    return new LoadTestOptions(
+        Integer.getInteger(PREFIX + "concurrency", 32),
+        Integer.getInteger(PREFIX + "requests", 20_000),
+        Integer.getInteger(PREFIX + "warmupRequests", 2_000),
+        Integer.getInteger(PREFIX + "instances", 1),
+        parseMix(System.getProperty(PREFIX + "mix", DEFAULT_MIX)),
+        knotConfig,
+        transport);
+  }
+
+  /**
+   * Parses comma separated {@code snippet|payload|weight} entries, e.g. {@code
+   * snippet/a.txt|data/a.json|3,snippet/b.txt|data/b.json|1}.
+   */
+  private static List<MixEntry> parseMix(String mix) {
+    List<MixEntry> entries = new ArrayList<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("\\|");
+      int weight = parts.length > 2 ? Integer.parseInt(parts[2]) : 1;
+      entries.add(new MixEntry(parts[0], parts[1], weight));
+    }
+    return entries;
+  }
+
+  int getConcurrency() {
+    return concurrency;
+  }
+
+  int getRequests() {
+    return requests;
+  }
+
+  int getWarmupRequests() {
+    return warmupRequests;
+  }
+
+  int getInstances() {
+    return instances;
+  }
+
+  List<MixEntry> getMix() {
+    return mix;
+  }
+
+  JsonObject getKnotConfig() {
+    return knotConfig;
+  }
+
+  String getAddress() {
+    return knotConfig.getString("address");
+  }
+
+  String getLocalAddress() {
+    return knotConfig.getString("localAddress");
+  }
+
+  Transport getTransport() {
+    return transport;
+  }
+
+  @Override
+  public String toString() {
+    return "LoadTestOptions{" +
+        "concurrency=" + concurrency +
+        ", requests=" + requests +
+        ", warmupRequests=" + warmupRequests +
+        ", instances=" + instances +
+        ", mix=" + mix +
+        ", knotConfig=" + knotConfig +
+        ", transport=" + transport +
+        '}';
+  }
+
+  /**
+   * How fragments are sent to the Knot.
+   */
+  enum Transport {
+    /**
+     * Service proxy, fragments are serialized to JSON.
+     */
+    PROXY,
+    /**
+     * {@code LocalKnotProxy}, fragments are passed by reference.
+     */
+    LOCAL
+  }
+
+  static class MixEntry {
+
+    private final String snippetPath;
+    private final String payloadPath;
+    private final int weight;
+
+    MixEntry(String snippetPath, String payloadPath, int weight) {
+      this.snippetPath = snippetPath;
+      this.payloadPath = payloadPath;
+      this.weight = weight;
+    }
+
+    String getSnippetPath() {
+      return snippetPath;
+    }
+
+    String getPayloadPath() {
+      return payloadPath;
+    }
+
+    int getWeight() {
+      return weight;
+    }
+
+    @Override
+    public String toString() {
+      return snippetPath + "|" + payloadPath + "|" + weight;
+    }
+  }
+}
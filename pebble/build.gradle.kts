@@ -27,14 +27,13 @@ plugins {
 
 dependencies {
   implementation(platform("io.knotx:knotx-dependencies:${project.version}"))
-  implementation("io.knotx:knotx-commons:${project.version}")
 
   api(project(":knotx-template-engine-api"))
+  implementation(project(":knotx-template-engine-common"))
 
   implementation(group = "io.vertx", name = "vertx-core")
   implementation(group = "io.vertx", name = "vertx-service-proxy")
   implementation(group = "io.vertx", name = "vertx-rx-java2")
-  implementation(group = "com.google.guava", name = "guava")
   implementation(group = "org.apache.commons", name = "commons-lang3")
   implementation(group = "io.pebbletemplates", name= "pebble", version = "3.1.2")
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.pebble;
+
+import io.knotx.te.common.budget.RenderBudget;
+import io.vertx.core.json.JsonArray;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@link List} view of a {@link JsonArray}, see {@link JsonObjectMap}. Element reads, e.g.
+ * {@code for} loop iterations, are reported to the {@link RenderBudget} active when the view was
+ * created.
+ */
+final class JsonArrayList extends AbstractList<Object> implements RandomAccess {
+
+  private final List<?> delegate;
+  private final RenderBudget budget;
+
+  JsonArrayList(JsonArray json) {
+    this.delegate = json.getList();
+    this.budget = RenderBudget.active();
+  }
+
+  @Override
+  public Object get(int index) {
+    if (budget != null) {
+      budget.iterate();
+    }
+    return JsonObjectMap.wrap(delegate.get(index));
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+}
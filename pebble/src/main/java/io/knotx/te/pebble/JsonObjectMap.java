@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.pebble;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only {@link Map} view of a {@link JsonObject} used as the Pebble evaluation context. Nothing
+ * is copied up front: nested JSON objects and arrays are wrapped in views only when a template
+ * reads them, so the cost of the context does not depend on the payload size.
+ */
+final class JsonObjectMap extends AbstractMap<String, Object> {
+
+  private final Map<String, Object> delegate;
+
+  JsonObjectMap(JsonObject json) {
+    this.delegate = json.getMap();
+  }
+
+  static Object wrap(Object value) {
+    if (value instanceof JsonObject) {
+      return new JsonObjectMap((JsonObject) value);
+    } else if (value instanceof JsonArray) {
+      return new JsonArrayList((JsonArray) value);
+    }
+    return value;
+  }
+
+  @Override
+  public Object get(Object key) {
+    return wrap(delegate.get(key));
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return delegate.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return delegate.isEmpty();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return Collections.unmodifiableSet(delegate.keySet());
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        Iterator<Entry<String, Object>> entries = delegate.entrySet().iterator();
+        return new Iterator<Entry<String, Object>>() {
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            Entry<String, Object> entry = entries.next();
+            return new SimpleImmutableEntry<>(entry.getKey(), wrap(entry.getValue()));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return delegate.size();
+      }
+    };
+  }
+}
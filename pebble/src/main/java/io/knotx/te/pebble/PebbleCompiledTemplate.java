@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.pebble;
+
+import com.mitchellbosecke.pebble.template.PebbleTemplate;
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.common.budget.RenderBudget;
+import io.knotx.te.common.output.OutputBuffers;
+import io.knotx.te.common.output.OutputSizeEstimate;
+import io.knotx.te.common.template.TemplateVariables;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+
+class PebbleCompiledTemplate implements CompiledTemplate {
+
+  private final PebbleTemplate template;
+  private final String wrappingRootNodeName;
+  private final TemplateVariables variables;
+  private final OutputSizeEstimate outputSize = new OutputSizeEstimate();
+
+  PebbleCompiledTemplate(PebbleTemplate template, String wrappingRootNodeName,
+      TemplateVariables variables) {
+    this.template = template;
+    this.wrappingRootNodeName = wrappingRootNodeName;
+    this.variables = variables;
+  }
+
+  @Override
+  public String render(JsonObject payload) {
+    try {
+      return renderToString(payload);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  String renderToString(JsonObject payload) throws IOException {
+    // output buffers report written characters to the render budget themselves
+    return OutputBuffers.render(outputSize, writer -> evaluate(payload, writer));
+  }
+
+  @Override
+  public void render(JsonObject payload, Writer writer) throws IOException {
+    RenderBudget budget = RenderBudget.active();
+    evaluate(payload, budget == null ? writer : budget.bound(writer));
+  }
+
+  @Override
+  public JsonObject prune(JsonObject payload) {
+    return variables.prune(payload);
+  }
+
+  private void evaluate(JsonObject payload, Writer writer) throws IOException {
+    template.evaluate(writer, getContextFrom(payload));
+  }
+
+  private Map<String, Object> getContextFrom(JsonObject payload) {
+    Map<String, Object> context = new JsonObjectMap(variables.prune(payload));
+    if (StringUtils.isBlank(wrappingRootNodeName)) {
+      return context;
+    } else {
+      return Collections.singletonMap(wrappingRootNodeName, context);
+    }
+  }
+}
@@ -15,27 +15,25 @@
  */
 package io.knotx.te.pebble;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.mitchellbosecke.pebble.PebbleEngine;
 import com.mitchellbosecke.pebble.loader.StringLoader;
 import com.mitchellbosecke.pebble.template.PebbleTemplate;
-import io.knotx.commons.json.JsonConverter;
 import io.knotx.fragments.api.Fragment;
+import io.knotx.te.api.CompiledTemplate;
 import io.knotx.te.api.TemplateEngine;
+import io.knotx.te.api.exception.TemplateCompilationException;
+import io.knotx.te.common.cache.TemplateCache;
+import io.knotx.te.common.cache.TemplateCacheOptions;
+import io.knotx.te.common.cache.TemplateKeyStrategy;
+import io.knotx.te.common.template.StaticTemplate;
+import io.knotx.te.common.template.StaticTemplateDetector;
+import io.knotx.te.common.template.TemplateVariables;
 import io.knotx.te.pebble.options.PebbleEngineOptions;
 import io.knotx.te.pebble.options.PebbleEngineSyntaxOptions;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import java.io.IOException;
-import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import org.apache.commons.lang3.StringUtils;
+import java.io.Writer;
 
 /**
  * This class is registered with Service Provider Interface (see META-INF/services)
@@ -45,65 +43,90 @@ class PebbleTemplateEngine implements TemplateEngine {
   private static final Logger LOGGER = LoggerFactory.getLogger(PebbleTemplateEngine.class);
 
   private final PebbleEngine pebbleEngine;
-  private final Cache<String, PebbleTemplate> cache;
-  private final MessageDigest digest;
   private final String wrappingRootNodeName;
+  private final TemplateCache<CompiledTemplate> cache;
+  private final StaticTemplateDetector staticTemplates;
+  private final PebbleVariablesAnalyzer variablesAnalyzer;
 
   PebbleTemplateEngine(PebbleEngineOptions options) {
     LOGGER.info("<{}> instance created", this.getClass().getSimpleName());
+    this.wrappingRootNodeName = options.getSyntax().getWrappingRootNodeName();
+    this.variablesAnalyzer = options.isPayloadPruning()
+        ? new PebbleVariablesAnalyzer(wrappingRootNodeName) : null;
     this.pebbleEngine = createPebbleEngine(options.getSyntax());
     this.cache = createCache(options);
-    this.digest = tryToCreateDigest(options);
-    this.wrappingRootNodeName = options.getSyntax().getWrappingRootNodeName();
+    this.staticTemplates = createStaticTemplateDetector(options.getSyntax());
   }
 
   @Override
   public String process(Fragment fragment) {
-    PebbleTemplate template = getTemplate(fragment);
+    CompiledTemplate template = getTemplate(fragment);
     traceProcessingFragment(fragment);
     return tryToProcessOnEngine(template, fragment);
   }
 
-  private PebbleTemplate getTemplate(Fragment fragment) {
+  @Override
+  public void process(Fragment fragment, Writer writer) throws IOException {
+    CompiledTemplate template = getTemplate(fragment);
+    traceProcessingFragment(fragment);
+    template.render(fragment.getPayload(), writer);
+  }
+
+  @Override
+  public CompiledTemplate compile(String body) {
     try {
-      String cacheKey = getCacheKey(fragment);
-      return cache.get(cacheKey, () -> {
-        traceCompilingFragment(fragment);
-        return pebbleEngine.getTemplate(fragment.getBody());
-      });
-    } catch (ExecutionException e) {
-      LOGGER.error("Could not compile fragment [{}]", fragment.abbreviate(), e);
-      throw new IllegalStateException(e);
+      return cache.get(body);
+    } catch (TemplateCompilationException e) {
+      LOGGER.error("Could not compile template", e);
+      throw e;
     }
   }
 
-  private String tryToProcessOnEngine(PebbleTemplate template, Fragment fragment) {
+  @Override
+  public void close() {
+    cache.close();
+    staticTemplates.close();
+  }
+
+  private CompiledTemplate getTemplate(Fragment fragment) {
     try {
-      StringWriter writer = new StringWriter();
-      template.evaluate(writer, getContextFrom(fragment));
-      return writer.toString();
-    } catch (IOException e) {
-      LOGGER.error("Could not apply context to fragment [{}]", fragment.abbreviate(), e);
-      throw new IllegalStateException(e);
+      return cache.get(fragment.getBody());
+    } catch (TemplateCompilationException e) {
+      LOGGER.error("Could not compile fragment [{}]", fragment.abbreviate(), e);
+      throw e;
     }
   }
 
-  private Map<String, Object> getContextFrom(Fragment fragment) {
-    if(StringUtils.isBlank(wrappingRootNodeName)) {
-      return JsonConverter.plainMapFrom(fragment.getPayload());
-    } else {
-      JsonObject wrapper = new JsonObject().put(wrappingRootNodeName, fragment.getPayload());
-      return JsonConverter.plainMapFrom(wrapper);
+  private CompiledTemplate compileTemplate(String body) {
+    // static templates are detected once, when they are cached
+    StaticTemplate staticTemplate = staticTemplates.staticTemplateOf(body);
+    if (staticTemplate != null) {
+      return staticTemplate;
     }
+    traceCompilingTemplate(body);
+    PebbleTemplate template = pebbleEngine.getTemplate(body);
+    TemplateVariables variables = variablesAnalyzer == null
+        ? TemplateVariables.all() : variablesAnalyzer.variablesOf(template);
+    return new PebbleCompiledTemplate(template, wrappingRootNodeName, variables);
   }
 
-  private String getCacheKey(Fragment fragment) {
-    byte[] cacheKeyBytes = digest.digest(fragment.getBody().getBytes(StandardCharsets.UTF_8));
-    return new String(cacheKeyBytes);
+  private String tryToProcessOnEngine(CompiledTemplate template, Fragment fragment) {
+    try {
+      return template instanceof PebbleCompiledTemplate
+          ? ((PebbleCompiledTemplate) template).renderToString(fragment.getPayload())
+          : template.render(fragment.getPayload());
+    } catch (IOException e) {
+      LOGGER.error("Could not apply context to fragment [{}]", fragment.abbreviate(), e);
+      throw new IllegalStateException(e);
+    }
   }
 
   private PebbleEngine createPebbleEngine(PebbleEngineSyntaxOptions syntaxOptions) {
-    return new PebbleEngine.Builder()
+    PebbleEngine.Builder builder = new PebbleEngine.Builder();
+    if (variablesAnalyzer != null) {
+      builder.extension(variablesAnalyzer);
+    }
+    return builder
         .loader(new StringLoader())
         .cacheActive(false)
         .strictVariables(syntaxOptions.isStrictVariables())
@@ -113,20 +136,28 @@ class PebbleTemplateEngine implements TemplateEngine {
         .build();
   }
 
-  private Cache<String, PebbleTemplate> createCache(PebbleEngineOptions options) {
-    return CacheBuilder.newBuilder()
-        .maximumSize(options.getCacheSize())
-        .removalListener(listener -> LOGGER.warn(
-            "Cache limit exceeded. Revisit 'cacheSize' setting"))
-        .build();
+  private TemplateCache<CompiledTemplate> createCache(PebbleEngineOptions options) {
+    TemplateCacheOptions cacheOptions = new TemplateCacheOptions(options.getCache());
+    if (cacheOptions.getMaximumSize() == null) {
+      cacheOptions.setMaximumSize(options.getCacheSize());
+    }
+    return new TemplateCache<>(PebbleTemplateEngineFactory.NAME, cacheOptions,
+        tryToCreateKeyStrategy(options), options.isCacheKeyVerification(), this::compileTemplate);
+  }
+
+  private StaticTemplateDetector createStaticTemplateDetector(
+      PebbleEngineSyntaxOptions syntaxOptions) {
+    return new StaticTemplateDetector(PebbleTemplateEngineFactory.NAME,
+        syntaxOptions.getDelimiterPrintOpen(), syntaxOptions.getDelimiterExecuteOpen(),
+        syntaxOptions.getDelimiterCommentOpen());
   }
 
-  private MessageDigest tryToCreateDigest(PebbleEngineOptions options) {
+  private TemplateKeyStrategy tryToCreateKeyStrategy(PebbleEngineOptions options) {
     try {
-      return MessageDigest.getInstance(options.getCacheKeyAlgorithm());
-    } catch (NoSuchAlgorithmException e) {
+      return TemplateKeyStrategy.forAlgorithm(options.getCacheKeyAlgorithm());
+    } catch (IllegalArgumentException e) {
       LOGGER.error("No such algorithm available {}.", options.getCacheKeyAlgorithm(), e);
-      throw new IllegalArgumentException(e);
+      throw e;
     }
   }
 
@@ -136,9 +167,9 @@ class PebbleTemplateEngine implements TemplateEngine {
     }
   }
 
-  private static void traceCompilingFragment(Fragment fragment) {
+  private static void traceCompilingTemplate(String body) {
     if (LOGGER.isTraceEnabled()) {
-      LOGGER.trace("Compiled Pebble fragment [{}]", fragment);
+      LOGGER.trace("Compiled Pebble template [{}]", body);
     }
   }
 
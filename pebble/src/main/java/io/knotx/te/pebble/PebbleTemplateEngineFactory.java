@@ -23,9 +23,11 @@ import io.vertx.reactivex.core.Vertx;
 
 public class PebbleTemplateEngineFactory implements TemplateEngineFactory {
 
+  static final String NAME = "pebble";
+
   @Override
   public String getName() {
-    return "pebble";
+    return NAME;
   }
 
   @Override
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.pebble;
+
+import com.mitchellbosecke.pebble.extension.AbstractExtension;
+import com.mitchellbosecke.pebble.extension.AbstractNodeVisitor;
+import com.mitchellbosecke.pebble.extension.NodeVisitor;
+import com.mitchellbosecke.pebble.extension.NodeVisitorFactory;
+import com.mitchellbosecke.pebble.node.ArgumentsNode;
+import com.mitchellbosecke.pebble.node.ExtendsNode;
+import com.mitchellbosecke.pebble.node.ForNode;
+import com.mitchellbosecke.pebble.node.ImportNode;
+import com.mitchellbosecke.pebble.node.IncludeNode;
+import com.mitchellbosecke.pebble.node.NamedArgumentNode;
+import com.mitchellbosecke.pebble.node.Node;
+import com.mitchellbosecke.pebble.node.PositionalArgumentNode;
+import com.mitchellbosecke.pebble.node.RootNode;
+import com.mitchellbosecke.pebble.node.SetNode;
+import com.mitchellbosecke.pebble.node.TestInvocationExpression;
+import com.mitchellbosecke.pebble.node.expression.BinaryExpression;
+import com.mitchellbosecke.pebble.node.expression.ContextVariableExpression;
+import com.mitchellbosecke.pebble.node.expression.Expression;
+import com.mitchellbosecke.pebble.node.expression.FilterInvocationExpression;
+import com.mitchellbosecke.pebble.node.expression.FunctionOrMacroInvocationExpression;
+import com.mitchellbosecke.pebble.node.expression.GetAttributeExpression;
+import com.mitchellbosecke.pebble.node.expression.LiteralBooleanExpression;
+import com.mitchellbosecke.pebble.node.expression.LiteralDoubleExpression;
+import com.mitchellbosecke.pebble.node.expression.LiteralIntegerExpression;
+import com.mitchellbosecke.pebble.node.expression.LiteralLongExpression;
+import com.mitchellbosecke.pebble.node.expression.LiteralNullExpression;
+import com.mitchellbosecke.pebble.node.expression.LiteralStringExpression;
+import com.mitchellbosecke.pebble.node.expression.RenderableNodeExpression;
+import com.mitchellbosecke.pebble.node.expression.TernaryExpression;
+import com.mitchellbosecke.pebble.node.expression.UnaryExpression;
+import com.mitchellbosecke.pebble.template.PebbleTemplate;
+import com.mitchellbosecke.pebble.template.PebbleTemplateImpl;
+import io.knotx.te.common.template.TemplateVariables;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Pebble extension finding payload paths referenced by a template while it is compiled: context
+ * variables followed by attribute names. Loop and {@code set} variables only add paths that may not
+ * exist, which is harmless, while includes, imports, inheritance, the {@code _context} variable and
+ * expressions that can not be inspected (literal arrays and maps, custom tags) reference the whole
+ * payload. With a wrapping root node, other context variables that are not loop or {@code set}
+ * variables reference the whole payload as well.
+ */
+class PebbleVariablesAnalyzer extends AbstractExtension implements NodeVisitorFactory {
+
+  private static final String CONTEXT_VARIABLE = "_context";
+  private static final String LOOP_VARIABLE = "loop";
+
+  private final String wrappingRootNodeName;
+  private final Map<PebbleTemplate, TemplateVariables> results = new ConcurrentHashMap<>();
+
+  PebbleVariablesAnalyzer(String wrappingRootNodeName) {
+    this.wrappingRootNodeName = wrappingRootNodeName;
+  }
+
+  @Override
+  public List<NodeVisitorFactory> getNodeVisitors() {
+    return Collections.singletonList(this);
+  }
+
+  @Override
+  public NodeVisitor createVisitor(PebbleTemplate template) {
+    return new Collector((PebbleTemplateImpl) template);
+  }
+
+  /**
+   * @param template template compiled by the engine this extension is registered with
+   * @return payload paths referenced by the template
+   */
+  TemplateVariables variablesOf(PebbleTemplate template) {
+    TemplateVariables variables = results.remove(template);
+    return variables == null ? TemplateVariables.all() : variables;
+  }
+
+  private final class Collector extends AbstractNodeVisitor {
+
+    private final List<List<String>> paths = new ArrayList<>();
+    private final Set<String> localVariables = new HashSet<>();
+    private boolean all;
+
+    private Collector(PebbleTemplateImpl template) {
+      super(template);
+    }
+
+    @Override
+    public void visit(RootNode node) {
+      super.visit(node);
+      results.put(getTemplate(), all ? TemplateVariables.all() : TemplateVariables.of(paths));
+    }
+
+    @Override
+    public void visit(Node node) {
+      if (node instanceof Expression) {
+        expression((Expression<?>) node);
+      } else {
+        all = true;
+      }
+    }
+
+    @Override
+    public void visit(ForNode node) {
+      localVariables.add(node.getIterationVariable());
+      localVariables.add(LOOP_VARIABLE);
+      super.visit(node);
+    }
+
+    @Override
+    public void visit(SetNode node) {
+      localVariables.add(node.getName());
+      super.visit(node);
+    }
+
+    @Override
+    public void visit(ExtendsNode node) {
+      all = true;
+    }
+
+    @Override
+    public void visit(ImportNode node) {
+      all = true;
+    }
+
+    @Override
+    public void visit(IncludeNode node) {
+      all = true;
+    }
+
+    private void expression(Expression<?> expression) {
+      List<String> path = pathOf(expression);
+      if (path != null) {
+        addPath(path);
+      } else if (expression instanceof GetAttributeExpression) {
+        GetAttributeExpression attribute = (GetAttributeExpression) expression;
+        expression(attribute.getNode());
+        expression(attribute.getAttributeNameExpression());
+        arguments(attribute.getArgumentsNode());
+      } else if (expression instanceof BinaryExpression) {
+        expression(((BinaryExpression<?>) expression).getLeftExpression());
+        expression(((BinaryExpression<?>) expression).getRightExpression());
+      } else if (expression instanceof RenderableNodeExpression) {
+        all = true;
+      } else if (expression instanceof UnaryExpression) {
+        expression(((UnaryExpression) expression).getChildExpression());
+      } else if (expression instanceof TernaryExpression) {
+        expression(((TernaryExpression) expression).getExpression1());
+        expression(((TernaryExpression) expression).getExpression2());
+        expression(((TernaryExpression) expression).getExpression3());
+      } else if (expression instanceof FunctionOrMacroInvocationExpression) {
+        arguments(((FunctionOrMacroInvocationExpression) expression).getArguments());
+      } else if (expression instanceof FilterInvocationExpression) {
+        arguments(((FilterInvocationExpression) expression).getArgs());
+      } else if (expression instanceof TestInvocationExpression) {
+        arguments(((TestInvocationExpression) expression).getArgs());
+      } else if (!isLiteral(expression)) {
+        all = true;
+      }
+    }
+
+    private void arguments(ArgumentsNode arguments) {
+      if (arguments == null) {
+        return;
+      }
+      if (arguments.getPositionalArgs() != null) {
+        for (PositionalArgumentNode argument : arguments.getPositionalArgs()) {
+          expression(argument.getValueExpression());
+        }
+      }
+      if (arguments.getNamedArgs() != null) {
+        for (NamedArgumentNode argument : arguments.getNamedArgs()) {
+          expression(argument.getValueExpression());
+        }
+      }
+    }
+
+    private List<String> pathOf(Expression<?> expression) {
+      if (expression instanceof ContextVariableExpression) {
+        List<String> path = new ArrayList<>();
+        path.add(((ContextVariableExpression) expression).getName());
+        return path;
+      } else if (expression instanceof GetAttributeExpression) {
+        GetAttributeExpression attribute = (GetAttributeExpression) expression;
+        if (attribute.getArgumentsNode() == null
+            && attribute.getAttributeNameExpression() instanceof LiteralStringExpression) {
+          List<String> path = pathOf(attribute.getNode());
+          if (path != null) {
+            path.add(((LiteralStringExpression) attribute.getAttributeNameExpression()).getValue());
+          }
+          return path;
+        }
+      }
+      return null;
+    }
+
+    private void addPath(List<String> path) {
+      String root = path.get(0);
+      if (CONTEXT_VARIABLE.equals(root)) {
+        all = true;
+      } else if (StringUtils.isBlank(wrappingRootNodeName)) {
+        paths.add(path);
+      } else if (wrappingRootNodeName.equals(root)) {
+        paths.add(path.subList(1, path.size()));
+      } else if (!localVariables.contains(root)) {
+        all = true;
+      }
+    }
+
+    private boolean isLiteral(Expression<?> expression) {
+      return expression == null
+          || expression instanceof LiteralStringExpression
+          || expression instanceof LiteralIntegerExpression
+          || expression instanceof LiteralLongExpression
+          || expression instanceof LiteralDoubleExpression
+          || expression instanceof LiteralBooleanExpression
+          || expression instanceof LiteralNullExpression;
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.knotx.te.pebble.options;
 
+import io.knotx.te.common.cache.TemplateCacheOptions;
 import io.vertx.codegen.annotations.DataObject;
 import io.vertx.core.json.JsonObject;
 
@@ -24,9 +25,12 @@ import io.vertx.core.json.JsonObject;
 @DataObject(generateConverter = true, publicConverter = false)
 public class PebbleEngineOptions {
 
-  private String cacheKeyAlgorithm = "MD5";
+  private String cacheKeyAlgorithm = "MURMUR3_128";
+  private boolean cacheKeyVerification = false;
   private Long cacheSize;
+  private TemplateCacheOptions cache = new TemplateCacheOptions();
   private PebbleEngineSyntaxOptions syntax = new PebbleEngineSyntaxOptions();
+  private boolean payloadPruning = false;
 
   public PebbleEngineOptions() {
   }
@@ -41,6 +45,25 @@ public class PebbleEngineOptions {
     return json;
   }
 
+  /**
+   * @return compiled templates cache options
+   */
+  public TemplateCacheOptions getCache() {
+    return cache;
+  }
+
+  /**
+   * Sets the compiled templates cache options, such as the maximum size or weight, expiration,
+   * refresh and statistics recording.
+   *
+   * @param cache the compiled templates cache options
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PebbleEngineOptions setCache(TemplateCacheOptions cache) {
+    this.cache = cache;
+    return this;
+  }
+
   /**
    * @return size of the cache
    */
@@ -49,8 +72,8 @@ public class PebbleEngineOptions {
   }
 
   /**
-   * Sets the size of the cache. After reaching the max size, new elements will replace the oldest
-   * one.
+   * Sets the size of the cache. It is kept for backward compatibility and is equivalent to
+   * {@code cache.maximumSize}, which takes precedence when set.
    *
    * @param cacheSize size of the cache
    * @return a reference to this, so the API can be used fluently
@@ -71,7 +94,8 @@ public class PebbleEngineOptions {
    * Sets the algorithm used to build a hash from the Pebble snippet. The hash is to be used as a
    * cache key.
    *
-   * The name should be a standard Java Security name (such as "SHA", "MD5", and so on).
+   * The default is {@code MURMUR3_128}, a fast non-cryptographic 128-bit hash. Any other name
+   * should be a standard Java Security name (such as "SHA", "MD5", and so on).
    *
    * @param cacheKeyAlgorithm algorithm name
    * @return a reference to this, so the API can be used fluently
@@ -81,6 +105,25 @@ public class PebbleEngineOptions {
     return this;
   }
 
+  /**
+   * @return flag indicating whether the source of a cached template is compared with the snippet
+   */
+  public boolean isCacheKeyVerification() {
+    return cacheKeyVerification;
+  }
+
+  /**
+   * Sets whether the source of a template found in the cache is compared with the Pebble snippet,
+   * so a hash collision never renders a wrong template. Default is {@code false}.
+   *
+   * @param cacheKeyVerification flag indicating whether cached template source is verified
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PebbleEngineOptions setCacheKeyVerification(boolean cacheKeyVerification) {
+    this.cacheKeyVerification = cacheKeyVerification;
+    return this;
+  }
+
   /**
    * @return syntax options with custom delimiters
    */
@@ -98,12 +141,37 @@ public class PebbleEngineOptions {
     this.syntax = syntax;
   }
 
+  /**
+   * @return flag indicating whether templates get only the payload values they reference
+   */
+  public boolean isPayloadPruning() {
+    return payloadPruning;
+  }
+
+  /**
+   * Sets whether templates are analysed at compile time to find the payload paths they reference,
+   * so that only those subtrees are passed to the template and used to identify cached outputs.
+   * Templates with includes, imports, embeds or literal arrays and maps get the whole payload.
+   * Custom functions and filters reading the evaluation context directly see the pruned payload.
+   * Default is {@code false}.
+   *
+   * @param payloadPruning flag indicating whether the payload is pruned to referenced paths
+   * @return a reference to this, so the API can be used fluently
+   */
+  public PebbleEngineOptions setPayloadPruning(boolean payloadPruning) {
+    this.payloadPruning = payloadPruning;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "PebbleEngineOptions{" +
         "cacheKeyAlgorithm='" + cacheKeyAlgorithm + '\'' +
+        ", cacheKeyVerification=" + cacheKeyVerification +
         ", cacheSize=" + cacheSize +
+        ", cache=" + cache +
         ", syntax=" + syntax +
+        ", payloadPruning=" + payloadPruning +
         '}';
   }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.pebble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JsonObjectMapTest {
+
+  private final JsonObject payload = new JsonObject()
+      .put("name", "John")
+      .put("address", new JsonObject().put("city", "Wroclaw"))
+      .put("items", new JsonArray()
+          .add(new JsonObject().put("price", 10))
+          .add(new JsonArray().add("nested")));
+
+  @Test
+  @DisplayName("Expect nested JSON objects and arrays exposed as maps and lists")
+  void expectNestedValuesWrapped() {
+    Map<String, Object> map = new JsonObjectMap(payload);
+
+    assertEquals("John", map.get("name"));
+    assertEquals(Collections.singletonMap("city", "Wroclaw"), map.get("address"));
+    List<?> items = (List<?>) map.get("items");
+    assertEquals(Collections.singletonMap("price", 10), items.get(0));
+    assertEquals(Collections.singletonList("nested"), items.get(1));
+  }
+
+  @Test
+  @DisplayName("Expect view equal to the payload converted to plain maps and lists")
+  void expectEqualToPlainMap() {
+    Map<String, Object> plain = new HashMap<>();
+    plain.put("name", "John");
+    plain.put("address", Collections.singletonMap("city", "Wroclaw"));
+    plain.put("items", Arrays.asList(Collections.singletonMap("price", 10),
+        Collections.singletonList("nested")));
+
+    assertEquals(plain, new JsonObjectMap(payload));
+  }
+
+  @Test
+  @DisplayName("Expect keys reported without reading values")
+  void expectKeysReported() {
+    Map<String, Object> map = new JsonObjectMap(payload);
+
+    assertTrue(map.containsKey("name"));
+    assertFalse(map.containsKey("surname"));
+    assertEquals(3, map.size());
+    assertEquals(payload.fieldNames(), map.keySet());
+  }
+
+  @Test
+  @DisplayName("Expect payload not copied and view read-only")
+  void expectPayloadNotCopied() {
+    Map<String, Object> map = new JsonObjectMap(payload);
+
+    payload.put("surname", "Doe");
+
+    assertEquals("Doe", map.get("surname"));
+    assertThrows(UnsupportedOperationException.class, () -> map.put("name", "Jane"));
+  }
+
+}
@@ -17,19 +17,31 @@ package io.knotx.te.pebble;
 
 import static io.knotx.junit5.assertions.KnotxAssertions.assertEqualsIgnoreWhitespace;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.mitchellbosecke.pebble.error.AttributeNotFoundException;
 import com.mitchellbosecke.pebble.error.ParserException;
 import com.mitchellbosecke.pebble.error.RootAttributeNotFoundException;
 import io.knotx.fragments.api.Fragment;
 import io.knotx.junit5.util.FileReader;
+import io.knotx.te.api.CompiledTemplate;
+import io.knotx.te.api.exception.TemplateCompilationException;
+import io.knotx.te.common.budget.RenderBudget;
+import io.knotx.te.common.budget.RenderLimitExceededException;
+import io.knotx.te.common.budget.RenderTimeoutException;
+import io.knotx.te.common.template.StaticTemplate;
 import io.knotx.te.pebble.options.PebbleEngineOptions;
 import io.knotx.te.pebble.options.PebbleEngineSyntaxOptions;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -81,7 +93,7 @@ class PebbleTemplateEngineTest {
 
   private static Stream<Arguments> failingInDefaultMode() {
     return Stream.of( // template, context, exception
-        Arguments.of(TEMPLATE_UNDEFINED_HELPER, CONTEXT_EMPTY, UncheckedExecutionException.class,
+        Arguments.of(TEMPLATE_UNDEFINED_HELPER, CONTEXT_EMPTY, TemplateCompilationException.class,
             ParserException.class)
     );
   }
@@ -90,7 +102,7 @@ class PebbleTemplateEngineTest {
     return Stream.of( // template, context, exception
         Arguments.of(TEMPLATE_SAMPLE, CONTEXT_SAMPLE_MISSING_FIELD, AttributeNotFoundException.class, null),
         Arguments.of(TEMPLATE_SAMPLE, CONTEXT_EMPTY, RootAttributeNotFoundException.class, null),
-        Arguments.of(TEMPLATE_UNDEFINED_HELPER, CONTEXT_EMPTY, UncheckedExecutionException.class,
+        Arguments.of(TEMPLATE_UNDEFINED_HELPER, CONTEXT_EMPTY, TemplateCompilationException.class,
             ParserException.class)
     );
   }
@@ -132,6 +144,47 @@ class PebbleTemplateEngineTest {
     }
   }
 
+  @ParameterizedTest
+  @MethodSource("passingInStrictMode")
+  @DisplayName("Expect the same markup rendered from the pruned payload in strict mode")
+  void renderTemplateWithPayloadPruning(String template, String context, String expectedResult)
+      throws IOException {
+    options.setPayloadPruning(true);
+    options.getSyntax().setStrictVariables(true);
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+
+    final Fragment fragment = mockFragmentFromFile(template, context);
+    final String result = templateEngine.process(fragment).trim();
+    final String expected = FileReader.readText(expectedResult).trim();
+
+    assertEqualsIgnoreWhitespace(expected, result);
+  }
+
+  @Test
+  @DisplayName("Expect variables read through _context rendered from the pruned payload")
+  void renderContextVariableWithPayloadPruning() {
+    options.setPayloadPruning(true);
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+    final Fragment fragment = new Fragment("snippet", new JsonObject(),
+        "<p>{{ _context.title }}</p>").appendPayload("title", "T");
+
+    assertEquals("<p>T</p>", templateEngine.process(fragment));
+  }
+
+  @Test
+  @DisplayName("Expect variables outside the wrapping root node rendered from the pruned payload")
+  void renderOtherRootWithPayloadPruning() {
+    options.setPayloadPruning(true);
+    options.getSyntax().setWrappingRootNodeName("root");
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+    final Fragment fragment = new Fragment("snippet", new JsonObject(),
+        "<p>{{ root.user.name }}{{ _context.root.title }}</p>")
+        .appendPayload("user", new JsonObject().put("name", "N"))
+        .appendPayload("title", "T");
+
+    assertEquals("<p>NT</p>", templateEngine.process(fragment));
+  }
+
   @ParameterizedTest
   @MethodSource("passingInStrictMode")
   @DisplayName("Expect successful template processing in strict mode")
@@ -166,6 +219,21 @@ class PebbleTemplateEngineTest {
     }
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"MURMUR3_128", "MD5", "SHA-256"})
+  @DisplayName("Expect cached template rendered properly with each cache key algorithm and verification")
+  void renderCachedTemplateWithCacheKeyAlgorithm(String algorithm) throws IOException {
+    options.setCacheKeyAlgorithm(algorithm).setCacheKeyVerification(true);
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+
+    final Fragment fragment = mockFragmentFromFile(TEMPLATE_SAMPLE, CONTEXT_SAMPLE);
+    templateEngine.process(fragment);
+    final String result = templateEngine.process(fragment).trim();
+    final String expected = FileReader.readText(RESULT_SAMPLE).trim();
+
+    assertEqualsIgnoreWhitespace(expected, result);
+  }
+
   @Test
   @DisplayName("Expect template with custom syntax to be filled properly in default mode")
   void renderTemplateWithCustomDelimitersInDefaultMode() throws IOException {
@@ -209,6 +277,95 @@ class PebbleTemplateEngineTest {
     assertEqualsIgnoreWhitespace(expected, result);
   }
 
+  @ParameterizedTest
+  @MethodSource("passingInDefaultMode")
+  @DisplayName("Expect template streamed into a writer and a buffer the same as processed to String")
+  void renderTemplateIntoWriter(String template, String context, String expectedResult)
+      throws IOException {
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+
+    final Fragment fragment = mockFragmentFromFile(template, context);
+    final StringWriter writer = new StringWriter();
+    templateEngine.process(fragment, writer);
+    final String expected = FileReader.readText(expectedResult).trim();
+
+    assertEqualsIgnoreWhitespace(expected, writer.toString().trim());
+    assertEquals(writer.toString(),
+        templateEngine.processToBuffer(fragment).toString(StandardCharsets.UTF_8.name()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("passingInDefaultMode")
+  @DisplayName("Expect compiled template rendered many times the same as processed fragment")
+  void renderCompiledTemplate(String template, String context, String expectedResult)
+      throws IOException {
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+
+    final CompiledTemplate compiledTemplate = templateEngine
+        .compile(FileReader.readText(template).trim());
+    final JsonObject payload = new JsonObject(FileReader.readText(context).trim());
+    final String expected = FileReader.readText(expectedResult).trim();
+
+    assertEqualsIgnoreWhitespace(expected, compiledTemplate.render(payload).trim());
+    assertEqualsIgnoreWhitespace(expected, compiledTemplate.render(payload).trim());
+  }
+
+  @Test
+  @DisplayName("Expect template without expressions returned as is, also in strict mode")
+  void renderStaticTemplate() throws IOException {
+    options.getSyntax().setStrictVariables(true);
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+
+    final Fragment fragment = new Fragment("snippet", new JsonObject(), "<p>{ static }</p>");
+    final StringWriter writer = new StringWriter();
+    templateEngine.process(fragment, writer);
+
+    assertEquals("<p>{ static }</p>", templateEngine.process(fragment));
+    assertEquals("<p>{ static }</p>", writer.toString());
+    assertEquals("<p>{ static }</p>",
+        templateEngine.compile(fragment.getBody()).render(new JsonObject()));
+    assertTrue(templateEngine.compile(fragment.getBody()) instanceof StaticTemplate);
+    assertSame(templateEngine.compile(fragment.getBody()),
+        templateEngine.compile(fragment.getBody()));
+  }
+
+  @Test
+  @DisplayName("Expect loop over payload array stopped when the render budget is exceeded")
+  void renderTemplateStoppedWhenBudgetExceeded() {
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+    final CompiledTemplate template = templateEngine
+        .compile("{% for item in items %}{% endfor %}");
+    final JsonArray items = new JsonArray();
+    IntStream.range(0, 1000).forEach(items::add);
+    final JsonObject payload = new JsonObject().put("items", items);
+
+    try (RenderBudget.Scope scope = RenderBudget.start().setTimeout(0).activate()) {
+      final RuntimeException error = assertThrows(RuntimeException.class,
+          () -> template.render(payload));
+      assertTrue(ExceptionUtils.indexOfType(error, RenderTimeoutException.class) >= 0);
+    }
+    assertEquals("", template.render(payload));
+  }
+
+  @Test
+  @DisplayName("Expect template streamed into a writer stopped when max output size is exceeded")
+  void renderTemplateIntoWriterStoppedWhenOutputLimitExceeded() {
+    final PebbleTemplateEngine templateEngine = new PebbleTemplateEngine(options);
+    final CompiledTemplate template = templateEngine
+        .compile("{% for item in items %}{{ item }},{% endfor %}");
+    final JsonArray items = new JsonArray();
+    IntStream.range(0, 1000).forEach(items::add);
+    final JsonObject payload = new JsonObject().put("items", items);
+    final StringWriter writer = new StringWriter();
+
+    try (RenderBudget.Scope scope = RenderBudget.start().setMaxOutputSize(100).activate()) {
+      final Exception error = assertThrows(Exception.class,
+          () -> template.render(payload, writer));
+      assertTrue(ExceptionUtils.indexOfType(error, RenderLimitExceededException.class) >= 0);
+    }
+    assertTrue(writer.toString().length() <= 100);
+  }
+
   private Fragment mockFragmentFromFile(String bodyFilePath, String contextFilePath)
       throws IOException {
     final String body = FileReader.readText(bodyFilePath).trim();
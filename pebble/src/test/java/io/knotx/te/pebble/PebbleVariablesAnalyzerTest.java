@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.te.pebble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mitchellbosecke.pebble.PebbleEngine;
+import com.mitchellbosecke.pebble.loader.StringLoader;
+import io.knotx.te.common.template.TemplateVariables;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PebbleVariablesAnalyzerTest {
+
+  @Test
+  @DisplayName("Expect context variables with attribute names found")
+  void expectReferencedPathsFound() {
+    TemplateVariables variables = analyze(null,
+        "{{ user.name }}{% for item in _result.items %}{{ item.price | abs }}{% endfor %}"
+            + "{% if flag and user['age'] > 18 %}{{ map[key] }}{% endif %}{{ list.size() }}");
+
+    assertEquals(new HashSet<>(Arrays.asList("user.name", "user.age", "_result.items",
+        "item.price", "flag", "map", "key", "list")), variables.getPaths());
+  }
+
+  @Test
+  @DisplayName("Expect paths resolved below the wrapping root node")
+  void expectWrappingRootNodeStripped() {
+    TemplateVariables variables = analyze("root", "{{ root.user.name }}"
+        + "{% for item in root.items %}{{ item.price }}{{ loop.index }}{% endfor %}"
+        + "{% set total = root.total %}{{ total.amount }}");
+
+    assertEquals(new HashSet<>(Arrays.asList("user.name", "items", "total")),
+        variables.getPaths());
+    assertTrue(analyze("root", "{{ root }}").isAll());
+  }
+
+  @Test
+  @DisplayName("Expect whole payload referenced by variables outside the wrapping root node")
+  void expectOtherRootsReferenceWholePayload() {
+    assertTrue(analyze("root", "{{ root.user.name }}{{ other }}").isAll());
+    assertTrue(analyze("root", "{{ root.user.name }}{{ other.name }}").isAll());
+  }
+
+  @Test
+  @DisplayName("Expect whole payload referenced by the _context variable")
+  void expectContextVariableReferencesWholePayload() {
+    assertTrue(analyze(null, "{{ _context.title }}").isAll());
+    assertTrue(analyze("root", "{{ _context.root.title }}").isAll());
+  }
+
+  @Test
+  @DisplayName("Expect whole payload referenced by includes and literal collections")
+  void expectWholePayloadReferenced() {
+    assertTrue(analyze(null, "{% include 'header' %}").isAll());
+    assertTrue(analyze(null, "{% for x in [a, b] %}{{ x }}{% endfor %}").isAll());
+  }
+
+  private static TemplateVariables analyze(String wrappingRootNodeName, String source) {
+    PebbleVariablesAnalyzer analyzer = new PebbleVariablesAnalyzer(wrappingRootNodeName);
+    PebbleEngine engine = new PebbleEngine.Builder()
+        .loader(new StringLoader())
+        .cacheActive(false)
+        .extension(analyzer)
+        .build();
+    return analyzer.variablesOf(engine.getTemplate(source));
+  }
+
+}
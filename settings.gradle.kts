@@ -16,12 +16,16 @@
 rootProject.name = "knotx-template-engine"
 
 include("knotx-template-engine-api")
+include("knotx-template-engine-benchmarks")
+include("knotx-template-engine-common")
 include("knotx-template-engine-core")
 include("knotx-template-engine-handlebars")
 include("knotx-template-engine-it-test")
 include("knotx-template-engine-pebble")
 
 project(":knotx-template-engine-api").projectDir = file("api")
+project(":knotx-template-engine-benchmarks").projectDir = file("benchmarks")
+project(":knotx-template-engine-common").projectDir = file("common")
 project(":knotx-template-engine-core").projectDir = file("core")
 project(":knotx-template-engine-handlebars").projectDir = file("handlebars")
 project(":knotx-template-engine-pebble").projectDir = file("pebble")